@@ -0,0 +1,72 @@
+package org.example.block2travelblog.cache;
+
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Filter values touched by posts change, both before and after the change.
+ * Null createdAt or rating bound means that the bound is unknown and any filter by it is affected.
+ */
+record PostChangeSummary(
+        Set<String> countries,
+        Set<String> categories,
+        boolean hasUnknownCategories,
+        Set<Long> userIds,
+        LocalDate latestCreatedAt,
+        Double maxRating
+) {
+
+    static PostChangeSummary of(PostChangedEvent event) {
+        Set<String> countries = new HashSet<>();
+        Set<String> categories = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        boolean hasUnknownCategories = false;
+        boolean hasUnknownCreatedAt = false;
+        boolean hasUnknownRating = false;
+        LocalDate latestCreatedAt = null;
+        Double maxRating = null;
+
+        List<PostSnapshot> snapshots = event.changes().stream()
+                .flatMap(change -> Stream.of(change.previous(), change.current()))
+                .filter(Objects::nonNull)
+                .toList();
+
+        for (PostSnapshot snapshot : snapshots) {
+            countries.add(snapshot.country());
+            userIds.add(snapshot.userId());
+
+            if (snapshot.categories() == null) {
+                hasUnknownCategories = true;
+            } else {
+                categories.addAll(snapshot.categories());
+            }
+
+            if (snapshot.createdAt() == null) {
+                hasUnknownCreatedAt = true;
+            } else if (latestCreatedAt == null || snapshot.createdAt().isAfter(latestCreatedAt)) {
+                latestCreatedAt = snapshot.createdAt();
+            }
+
+            if (snapshot.rating() == null) {
+                hasUnknownRating = true;
+            } else if (maxRating == null || snapshot.rating() > maxRating) {
+                maxRating = snapshot.rating();
+            }
+        }
+
+        return new PostChangeSummary(
+                countries,
+                categories,
+                hasUnknownCategories,
+                userIds,
+                hasUnknownCreatedAt ? null : latestCreatedAt,
+                hasUnknownRating ? null : maxRating);
+    }
+}
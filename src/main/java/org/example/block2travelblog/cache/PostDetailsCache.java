@@ -0,0 +1,116 @@
+package org.example.block2travelblog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.block2travelblog.dto.ExtendedPostDto;
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of post details with author.
+ * Concurrent requests for the same missing post wait for a single load.
+ * Entries are invalidated by committed post changes and by author updates.
+ * Post loaded before an update of its author is not served, also when the load finishes after the invalidation.
+ * Hit, miss, eviction and load time statistics are exported as "cache.*" metrics with tag cache=post-details.
+ */
+@Component
+public class PostDetailsCache {
+
+    private final Cache<Long, CachedPost> cache;
+
+    /**
+     * Counts author invalidations, a post remembers the count read before its load.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Generation of the last invalidation per author, kept until posts loaded before it have expired.
+     */
+    private final Cache<Long, Long> authorInvalidations;
+
+    public PostDetailsCache(@Value("${blog.cache.post-details.maximum-size:10000}") long maximumSize,
+                            @Value("${blog.cache.post-details.expire-after-write:10m}") Duration expireAfterWrite,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.authorInvalidations = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite.multipliedBy(2))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "post-details");
+    }
+
+    /**
+     * Returns cached post or loads and caches it, exceptions thrown by loader are not cached
+     *
+     * @param id post id
+     * @param loader loads post from storage
+     * @return post data with author
+     */
+    public ExtendedPostDto get(Long id, Function<Long, ExtendedPostDto> loader) {
+        while (true) {
+            CachedPost cachedPost = cache.get(id, key -> {
+                long loadGeneration = generation.get();
+                return new CachedPost(loader.apply(key), loadGeneration);
+            });
+            if (!isStale(cachedPost)) {
+                return cachedPost.post();
+            }
+            cache.asMap().remove(id, cachedPost);
+        }
+    }
+
+    /**
+     * Invalidates posts of the author, including posts being loaded, should be called after the update is committed
+     *
+     * @param userId author id
+     */
+    public void invalidateByAuthor(Long userId) {
+        authorInvalidations.put(userId, generation.incrementAndGet());
+        cache.asMap().values().removeIf(cachedPost -> userId.equals(authorId(cachedPost.post())));
+    }
+
+    /**
+     * Invalidates changed and deleted posts
+     *
+     * @param event committed posts change
+     */
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        for (PostChange change : event.changes()) {
+            if (change.previous() != null) {
+                cache.invalidate(change.previous().id());
+            }
+            if (change.current() != null) {
+                cache.invalidate(change.current().id());
+            }
+        }
+    }
+
+    private boolean isStale(CachedPost cachedPost) {
+        Long authorId = authorId(cachedPost.post());
+        Long invalidatedAt = authorId != null ? authorInvalidations.getIfPresent(authorId) : null;
+        return invalidatedAt != null && cachedPost.generation() < invalidatedAt;
+    }
+
+    private static Long authorId(ExtendedPostDto post) {
+        return post.getAuthor() != null ? post.getAuthor().getId() : null;
+    }
+
+    /**
+     * Post with generation of author invalidations read before it was loaded.
+     */
+    private record CachedPost(ExtendedPostDto post, long generation) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.block2travelblog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.dto.FilteredPostResponse;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of post search pages.
+ * Entries are evicted by size (W-TinyLFU) and TTL, and invalidated selectively
+ * by countries, categories and users touched by committed post changes.
+ * Hit, miss and eviction statistics are exported as "cache.*" metrics with tag cache=post-search.
+ */
+@Slf4j
+@Component
+public class PostSearchCache {
+
+    private final Cache<PostSearchKey, FilteredPostResponse> cache;
+
+    /**
+     * Incremented on every invalidation, so pages loaded concurrently with a change are not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostSearchCache(@Value("${blog.cache.post-search.maximum-size:10000}") long maximumSize,
+                           @Value("${blog.cache.post-search.expire-after-write:5m}") Duration expireAfterWrite,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "post-search");
+    }
+
+    /**
+     * Returns cached page or loads and caches it
+     *
+     * @param key normalized search query
+     * @param loader loads page from storage
+     * @return page of filtered posts
+     */
+    public FilteredPostResponse get(PostSearchKey key, Supplier<FilteredPostResponse> loader) {
+        FilteredPostResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadGeneration = generation.get();
+        FilteredPostResponse response = loader.get();
+        if (generation.get() == loadGeneration) {
+            cache.asMap().putIfAbsent(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Invalidates pages which may contain changed posts
+     *
+     * @param event committed posts change
+     */
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+        PostChangeSummary change = PostChangeSummary.of(event);
+        long sizeBefore = cache.estimatedSize();
+        cache.asMap().keySet().removeIf(key -> key.isAffectedBy(change));
+        log.debug("Post search cache invalidated: {} of {} pages", sizeBefore - cache.estimatedSize(), sizeBefore);
+    }
+}
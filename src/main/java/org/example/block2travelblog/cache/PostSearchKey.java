@@ -0,0 +1,66 @@
+package org.example.block2travelblog.cache;
+
+import org.example.block2travelblog.dto.PostQueryDto;
+import org.example.block2travelblog.dto.PostView;
+import org.example.block2travelblog.index.PostTextIndex;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Normalized search query used as a key of {@link PostSearchCache}.
+ * Page number is ignored in keyset mode and cursor is ignored in offset mode.
+ * Search text is kept as distinct sorted terms, so texts differing only in case,
+ * punctuation or order of words share a key, as they match the same posts in the same order.
+ */
+public record PostSearchKey(
+        String country,
+        String category,
+        LocalDate createdAfter,
+        Double minRating,
+        Long userId,
+        List<String> terms,
+        int from,
+        int size,
+        String cursor,
+        PostView view
+) {
+
+    /**
+     * Creates key for the search query
+     *
+     * @param postQueryDto search query
+     * @return normalized key
+     */
+    public static PostSearchKey of(PostQueryDto postQueryDto) {
+        boolean keysetMode = postQueryDto.getCursor() != null;
+        return new PostSearchKey(
+                postQueryDto.getCountry(),
+                postQueryDto.getCategory(),
+                postQueryDto.getCreatedAfter(),
+                postQueryDto.getMinRating(),
+                postQueryDto.getUserId(),
+                StringUtils.hasText(postQueryDto.getText())
+                        ? PostTextIndex.tokenize(postQueryDto.getText()).stream().distinct().sorted().toList()
+                        : null,
+                keysetMode ? 0 : postQueryDto.getFrom(),
+                postQueryDto.getSize(),
+                keysetMode ? postQueryDto.getCursor() : null,
+                postQueryDto.getView() != null ? postQueryDto.getView() : PostView.FULL);
+    }
+
+    /**
+     * Checks if cached page for this key may be affected by the change
+     *
+     * @param change countries, categories and users touched by the change
+     * @return true if the page has to be invalidated
+     */
+    boolean isAffectedBy(PostChangeSummary change) {
+        return (country == null || change.countries().contains(country))
+                && (category == null || change.hasUnknownCategories() || change.categories().contains(category))
+                && (userId == null || change.userIds().contains(userId))
+                && (createdAfter == null || change.latestCreatedAt() == null || change.latestCreatedAt().isAfter(createdAfter))
+                && (minRating == null || change.maxRating() == null || change.maxRating() >= minRating);
+    }
+}
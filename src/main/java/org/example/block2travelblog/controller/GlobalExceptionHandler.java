@@ -7,13 +7,19 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.example.block2travelblog.exception.CreationException;
 import org.example.block2travelblog.exception.DuplicateEmailException;
+import org.example.block2travelblog.exception.ExportLimitExceededException;
+import org.example.block2travelblog.exception.ImportConflictException;
+import org.example.block2travelblog.exception.ReportNotReadyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Global exception handler for REST controllers.
@@ -66,6 +72,65 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
     }
 
+    /**
+     * Handles ReportNotReadyException and returns 409 Conflict
+     * @param e the exception
+     * @return error response with error information
+     */
+    @ExceptionHandler(ReportNotReadyException.class)
+    protected ResponseEntity<Object> handleReportNotReady(ReportNotReadyException e) {
+        log.warn("Report not ready: {}", e.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    /**
+     * Handles ExportLimitExceededException and returns 429 Too Many Requests.
+     * Error is written as JSON even if the request accepts only report formats.
+     * @param e the exception
+     * @return error response with error information
+     */
+    @ExceptionHandler(ExportLimitExceededException.class)
+    protected ResponseEntity<Object> handleExportLimitExceeded(ExportLimitExceededException e) {
+        log.warn("Export limit exceeded: {}", e.getMessage());
+        HttpStatus httpStatus = HttpStatus.TOO_MANY_REQUESTS;
+        return ResponseEntity.status(httpStatus)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(httpStatus.value(), httpStatus.getReasonPhrase(), e.getMessage()));
+    }
+
+    /**
+     * Handles RejectedExecutionException and returns 503 Service Unavailable
+     * @param e the exception
+     * @return error response with error information
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    protected ResponseEntity<Object> handleRejectedExecution(RejectedExecutionException e) {
+        log.warn("Background task rejected: {}", e.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many background tasks queued, retry the request later");
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException and returns 409 Conflict
+     * @param e the exception
+     * @return error response with error information
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        log.warn("Concurrent modification: {}", e.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, "Resource was modified concurrently, retry the request");
+    }
+
+    /**
+     * Handles ImportConflictException and returns 409 Conflict
+     * @param e the exception
+     * @return error response with error information
+     */
+    @ExceptionHandler(ImportConflictException.class)
+    protected ResponseEntity<Object> handleImportConflict(ImportConflictException e) {
+        log.warn("Import conflict: {}", e.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, e.getMessage());
+    }
+
     /**
      * Handles MethodArgumentNotValidException and returns 400 Bad Request
      * @param e the exception
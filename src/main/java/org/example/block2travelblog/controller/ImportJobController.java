@@ -0,0 +1,76 @@
+package org.example.block2travelblog.controller;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.dto.ImportJobDto;
+import org.example.block2travelblog.dto.UploadErrorDto;
+import org.example.block2travelblog.service.ImportJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * REST controller for background posts import jobs.
+ */
+@RestController
+@RequestMapping("/api/post/import-jobs")
+@RequiredArgsConstructor
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    /**
+     * Submits .json file with posts for background import
+     *
+     * @param file with posts data
+     * @return queued job, its progress is available by job id
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto submit(@RequestParam("file") MultipartFile file) {
+        return importJobService.submit(file);
+    }
+
+    /**
+     * Retrieves import job progress
+     *
+     * @param id job id
+     * @return job state with counters and throughput
+     */
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportJobDto getJob(@PathVariable @NotNull @Min(1) Long id) {
+        return importJobService.getJob(id);
+    }
+
+    /**
+     * Retrieves records of the job which were not imported
+     *
+     * @param id job id
+     * @param after number of the last record of previous page
+     * @param size page size
+     * @return errors ordered by record number
+     */
+    @GetMapping("/{id}/errors")
+    @ResponseStatus(HttpStatus.OK)
+    public List<UploadErrorDto> getErrors(@PathVariable @NotNull @Min(1) Long id,
+                                             @RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(defaultValue = "100") int size) {
+        return importJobService.getErrors(id, after, size);
+    }
+
+    /**
+     * Resumes failed job from its committed chunks
+     *
+     * @param id job id
+     * @return queued job
+     */
+    @PostMapping("/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto resume(@PathVariable @NotNull @Min(1) Long id) {
+        return importJobService.resume(id);
+    }
+}
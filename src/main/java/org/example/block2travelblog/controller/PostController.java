@@ -1,18 +1,34 @@
 package org.example.block2travelblog.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.example.block2travelblog.dto.*;
+import org.example.block2travelblog.exception.ExportLimitExceededException;
+import org.example.block2travelblog.report.PostExportLimiter;
+import org.example.block2travelblog.report.PostReportFormat;
 import org.example.block2travelblog.service.PostService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * REST controller for Posts operations.
@@ -24,6 +40,7 @@ import java.util.Map;
 public class PostController {
 
     private final PostService postService;
+    private final PostExportLimiter postExportLimiter;
 
     /**
      * Creates a new post
@@ -38,15 +55,22 @@ public class PostController {
     }
 
     /**
-     * Retrieves post by id
+     * Retrieves post by id.
+     * Answers 304 Not Modified when If-None-Match contains ETag of the post, built from version
+     * and author of the post details, which are usually served from cache.
+     * Last-Modified is not sent, post update time does not change with its author.
      *
      * @param id post ID
-     * @return post extended details
+     * @param webRequest request with conditional headers
+     * @return post extended details, or null when not modified
      */
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ExtendedPostDto getPostById(@PathVariable Long id) {
-        return postService.getPostById(id);
+    public ExtendedPostDto getPostById(@PathVariable Long id, WebRequest webRequest) {
+        ExtendedPostDto post = postService.getPostById(id);
+        if (webRequest.checkNotModified(PostETags.ofPost(post))) {
+            return null;
+        }
+        return post;
     }
 
     /**
@@ -76,30 +100,113 @@ public class PostController {
     }
 
     /**
-     * Retrieves page with filtered posts
+     * Retrieves page with filtered posts.
+     * When cursor is sent, keyset pagination is used and nextCursor is returned instead of totals.
+     * With summary view posts have teaser instead of content.
+     * Answers 304 Not Modified when If-None-Match contains ETag of the page, built from ids and versions
+     * of its posts and totals. Page is usually served from search cache, so checking it reads no posts.
      *
-     * @param postQueryDto filtered fields, size, from
+     * @param postQueryDto filtered fields, size, from or cursor, view
+     * @param ifNoneMatch entity tags of pages cached by client
      * @return list of filtered posts, page number and page size
      */
     @PostMapping("/_list")
+    public ResponseEntity<FilteredPostResponse> getPostPage(
+            @RequestBody PostQueryDto postQueryDto,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FilteredPostResponse response = postService.search(postQueryDto);
+        String eTag = PostETags.ofPage(response);
+        if (PostETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(response);
+    }
+
+    /**
+     * Retrieves counts of posts per country, category, rating bucket and month
+     *
+     * @param postFilteredFieldsDto filtered fields
+     * @return facet counts, each restricted by all filters except its own
+     */
+    @PostMapping("/_facets")
     @ResponseStatus(HttpStatus.OK)
-    public FilteredPostResponse getPostPage(@RequestBody PostQueryDto postQueryDto) {
-        return postService.search(postQueryDto);
+    public PostFacetsResponse getFacets(@RequestBody PostFilteredFieldsDto postFilteredFieldsDto) {
+        return postService.getFacets(postFilteredFieldsDto);
     }
 
     /**
-     * Generates a report with filtered posts in xlsx format
+     * Generates a report with filtered posts in format chosen by Accept header:
+     * xlsx by default, text/csv or application/x-ndjson streamed from database,
+     * gzip-compressed when client accepts gzip encoding
      *
+     * @param request
      * @param response
+     * @param accept accepted report formats
+     * @param acceptEncoding accepted content encodings
      * @param postFilteredFieldsDto
+     * @return streamed csv or ndjson body, null when xlsx is written to response
+     * @throws HttpMediaTypeNotAcceptableException if none of the formats is accepted
+     * @throws ExportLimitExceededException if maximum count of exports is running
+     */
+    @PostMapping("/_report")
+    public ResponseEntity<StreamingResponseBody> generateReport(HttpServletRequest request,
+                                                                HttpServletResponse response,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                @RequestBody PostFilteredFieldsDto postFilteredFieldsDto)
+            throws HttpMediaTypeNotAcceptableException {
+        PostReportFormat format = PostReportFormat.fromAcceptHeader(accept)
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(PostReportFormat.supportedMediaTypes()));
+        PostExportLimiter.Permit permit = postExportLimiter.acquire();
+        if (format == PostReportFormat.XLSX) {
+            try (permit) {
+                postService.generateReport(response, postFilteredFieldsDto);
+            }
+            return null;
+        }
+
+        try {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(format.getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + format.getFileName())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            StreamingResponseBody body = postService.exportPosts(postFilteredFieldsDto, format, gzip);
+            releaseOnAsyncCompletion(request, permit);
+            return builder.body(outputStream -> {
+                try (permit) {
+                    body.writeTo(outputStream);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives streamed export its own async timeout instead of the application-wide one,
+     * and releases export permit when async processing ends, also on timeout or client disconnect
      */
-    @PostMapping(value="/_report", produces= MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public void generateReport(HttpServletResponse response, @RequestBody PostFilteredFieldsDto postFilteredFieldsDto) {
-        postService.generateReport(response, postFilteredFieldsDto);
+    private void releaseOnAsyncCompletion(HttpServletRequest request, PostExportLimiter.Permit permit) {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        AsyncWebRequest asyncWebRequest = asyncManager.getAsyncWebRequest();
+        if (asyncWebRequest != null) {
+            asyncWebRequest.setTimeout(postExportLimiter.getExportTimeout().toMillis());
+        }
+        asyncManager.registerCallableInterceptor(permit, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                permit.close();
+            }
+        });
     }
 
     /**
-     * Upload post data from json file
+     * Upload post data from json or ndjson file, optionally gzip-compressed
      *
      * @param file
      * @return message with count of successful saving posts into db and count of failed saving
@@ -110,4 +217,30 @@ public class PostController {
         return postService.uploadFromFile(file);
     }
 
+    /**
+     * Upload post data sent as request body, posts are saved while body is being received
+     *
+     * @param request request with json or ndjson body, optionally gzip-compressed
+     * @return message with count of successful saving posts into db and count of failed saving
+     */
+    @PostMapping(value = "/file/upload", consumes = {"application/x-ndjson", "application/jsonl",
+            MediaType.APPLICATION_JSON_VALUE, "application/gzip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public UploadedPostsRestResponse uploadFromStream(HttpServletRequest request) throws IOException {
+        return postService.uploadFromStream(request.getInputStream(), request.getContentType());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,71 @@
+package org.example.block2travelblog.controller;
+
+import org.example.block2travelblog.dto.FilteredPostResponse;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.dto.ExtendedPostDto;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong entity tags of post responses, computed from post ids and versions instead of response bodies.
+ */
+final class PostETags {
+
+    private PostETags() {
+    }
+
+    /**
+     * Creates entity tag of post details, author fields are included because they are embedded in response
+     *
+     * @param post post details
+     * @return quoted entity tag
+     */
+    static String ofPost(ExtendedPostDto post) {
+        String authorName = post.getAuthor() != null ? post.getAuthor().getName() : null;
+        String authorEmail = post.getAuthor() != null ? post.getAuthor().getEmail() : null;
+        return digest(post.getId() + ":" + post.getVersion() + ":" + authorName + ":" + authorEmail);
+    }
+
+    /**
+     * Creates entity tag of posts page
+     *
+     * @param response page of posts
+     * @return quoted entity tag
+     */
+    static String ofPage(FilteredPostResponse response) {
+        StringBuilder builder = new StringBuilder();
+        for (PostDto post : response.getList()) {
+            builder.append(post.getId()).append(':').append(post.getVersion())
+                    .append(post.getContent() == null ? ":s" : ":f").append(';');
+        }
+        builder.append(response.getTotalElements()).append(';')
+                .append(response.getTotalPages()).append(';')
+                .append(response.getNextCursor());
+        return digest(builder.toString());
+    }
+
+    /**
+     * Checks If-None-Match header value against entity tag using weak comparison
+     *
+     * @param ifNoneMatch header value, may be null
+     * @param eTag quoted entity tag
+     * @return true if client already has the representation
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String clientETag : ifNoneMatch.split(",")) {
+            String tag = clientETag.trim();
+            if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String digest(String value) {
+        return "\"" + DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.block2travelblog.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.dto.PostFilteredFieldsDto;
+import org.example.block2travelblog.dto.ReportJobDto;
+import org.example.block2travelblog.service.ReportJobService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for background posts report jobs.
+ */
+@RestController
+@RequestMapping("/api/post/report-jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Submits generation of a report with filtered posts,
+     * existing report for the same filter and unchanged posts is returned instead
+     *
+     * @param format report format: xlsx, csv or ndjson
+     * @param postFilteredFieldsDto fields for filtering
+     * @return queued or reused job, its file is available by job id when completed
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ReportJobDto submit(@RequestParam(defaultValue = "xlsx") String format,
+                               @RequestBody PostFilteredFieldsDto postFilteredFieldsDto) {
+        return reportJobService.submit(postFilteredFieldsDto, format);
+    }
+
+    /**
+     * Retrieves report job state
+     *
+     * @param id job id
+     * @return job state
+     */
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public ReportJobDto getJob(@PathVariable @NotNull @Min(1) Long id) {
+        return reportJobService.getJob(id);
+    }
+
+    /**
+     * Downloads report file of completed job, whole or a single byte range of it
+     *
+     * @param id job id
+     * @param range requested byte range
+     * @param ifRange ETag of the report the range was requested for
+     * @param request
+     * @param response
+     */
+    @GetMapping("/{id}/file")
+    public void download(@PathVariable @NotNull @Min(1) Long id,
+                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                         @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                         HttpServletRequest request,
+                         HttpServletResponse response) {
+        reportJobService.download(id, range, ifRange, request, response);
+    }
+}
@@ -4,8 +4,10 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.dto.FilteredPostResponse;
 import org.example.block2travelblog.dto.SaveUserDto;
 import org.example.block2travelblog.dto.UserDto;
+import org.example.block2travelblog.service.FeedService;
 import org.example.block2travelblog.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final FeedService feedService;
 
     /**
      * Retrieves all users
@@ -71,4 +74,46 @@ public class UserController {
         userService.deleteUser(id);
     }
 
+    /**
+     * Follows user, posts of followed user appear in home feed of the follower
+     *
+     * @param id follower id
+     * @param followeeId followed user id
+     */
+    @PostMapping("/{id}/follow/{followeeId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void follow(@PathVariable @NotNull @Min(1) Long id,
+                       @PathVariable @NotNull @Min(1) Long followeeId) {
+        feedService.follow(id, followeeId);
+    }
+
+    /**
+     * Unfollows user and removes posts of unfollowed user from home feed
+     *
+     * @param id follower id
+     * @param followeeId unfollowed user id
+     */
+    @DeleteMapping("/{id}/follow/{followeeId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unfollow(@PathVariable @NotNull @Min(1) Long id,
+                         @PathVariable @NotNull @Min(1) Long followeeId) {
+        feedService.unfollow(id, followeeId);
+    }
+
+    /**
+     * Retrieves home feed of the user with posts of followed users, newest first
+     *
+     * @param id user id
+     * @param cursor cursor of the next page from previous response
+     * @param size page size
+     * @return page of posts with cursor of the next page
+     */
+    @GetMapping("/{id}/feed")
+    @ResponseStatus(HttpStatus.OK)
+    public FilteredPostResponse getFeed(@PathVariable @NotNull @Min(1) Long id,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        return feedService.getFeed(id, cursor, size);
+    }
+
 }
@@ -0,0 +1,45 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Post materialized in feed of a follower of its author.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(FeedItem.Key.class)
+@Table(
+        name = "feed_items",
+        indexes = {
+                @Index(name = "idx_feed_items_user_created_at_post", columnList = "user_id, created_at, post_id")
+        }
+)
+public class FeedItem {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private Long postId;
+
+    /**
+     * Creation date of the post, copied for ordering the feed.
+     */
+    private LocalDate createdAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long postId;
+    }
+}
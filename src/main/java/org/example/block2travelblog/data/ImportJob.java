@@ -0,0 +1,70 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Bulk import of posts from uploaded file, processed in background chunks.
+ * Counters are updated in the same transaction as the chunk they describe.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private ImportJobStatus status;
+
+    private String fileName;
+
+    /**
+     * Uploaded file copied to spool directory, kept until job is completed.
+     */
+    private String spoolPath;
+
+    /**
+     * Records per chunk, kept for the job so resumed run splits file into the same chunks.
+     */
+    private int chunkSize;
+
+    private Instant createdAt;
+
+    /**
+     * Start of the current run, reset when job is resumed.
+     */
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    /**
+     * Updated when job is claimed and with every committed chunk,
+     * running job without recent heartbeat is taken over by another run.
+     */
+    private Instant heartbeatAt;
+
+    private long importedCount;
+
+    private long duplicateCount;
+
+    private long failedCount;
+
+    private int committedChunks;
+
+    /**
+     * Records processed by previous runs, excluded from throughput of the current run.
+     */
+    private long processedAtStart;
+
+    private String errorMessage;
+
+}
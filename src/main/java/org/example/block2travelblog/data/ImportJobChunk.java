@@ -0,0 +1,41 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Marker of chunk committed by import job, written in the same transaction as chunk posts.
+ * Resumed job skips chunks which have a marker.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(ImportJobChunk.Key.class)
+@Table(name = "import_job_chunks")
+public class ImportJobChunk {
+
+    @Id
+    private Long jobId;
+
+    @Id
+    private Integer chunkIndex;
+
+    private int importedCount;
+
+    private int duplicateCount;
+
+    private int failedCount;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long jobId;
+        private Integer chunkIndex;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record of uploaded file which was not imported.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "import_job_errors",
+        indexes = {
+                @Index(name = "idx_import_job_errors_job_record", columnList = "job_id, record_number")
+        }
+)
+public class ImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+
+    /**
+     * Number of record in file starting from 1.
+     */
+    private long recordNumber;
+
+    private String message;
+
+}
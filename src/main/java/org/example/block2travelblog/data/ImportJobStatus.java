@@ -0,0 +1,11 @@
+package org.example.block2travelblog.data;
+
+/**
+ * Lifecycle state of posts import job.
+ */
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
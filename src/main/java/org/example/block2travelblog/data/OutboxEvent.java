@@ -0,0 +1,62 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Event written in the same transaction as the change it describes
+ * and published to message broker by outbox relay.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_events_next_attempt_at", columnList = "next_attempt_at, id")
+        }
+)
+public class OutboxEvent {
+
+    public static final String POST_CREATED = "post.created";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String eventType;
+
+    /**
+     * Event data serialized as JSON.
+     */
+    private String payload;
+
+    private Instant createdAt;
+
+    /**
+     * Count of failed publishing attempts.
+     */
+    private int attempts;
+
+    /**
+     * Event is not published before this time, moved forward after every failed attempt.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Token of the relay run which claimed the event, claim lasts until next attempt time.
+     */
+    private String claimToken;
+
+    /**
+     * Last user id of every chunk of recipients as JSON array, resolved on the first attempt
+     * so retried messages have the same ids and the same recipients.
+     */
+    private String recipientChunks;
+
+}
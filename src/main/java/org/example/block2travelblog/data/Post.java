@@ -3,7 +3,12 @@ package org.example.block2travelblog.data;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.example.block2travelblog.event.PostChangeTracker;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.example.block2travelblog.upload.PostFingerprint;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -16,32 +21,114 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(PostChangeTracker.class)
 @Table(
         name = "posts",
         indexes = {
                 @Index(name = "idx_post_country", columnList = "country"),
-                @Index(name = "idx_post_created_at", columnList = "created_at"),
+                @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
                 @Index(name = "idx_post_rating", columnList = "rating"),
-                @Index(name = "idx_post_user_id", columnList = "user_id")
+                @Index(name = "idx_post_user_created_at_id", columnList = "user_id, created_at, id"),
+                @Index(name = "uk_post_fingerprint", columnList = "fingerprint", unique = true)
         }
 )
 public class Post {
 
+    public static final int TEASER_LENGTH = 200;
+    public static final String TEASER_ELLIPSIS = "...";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Allocated from sequence in blocks, which lets Hibernate batch inserts of posts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String title;
     private String content;
+
+    /**
+     * Beginning of content shown in post lists, updated on every write.
+     */
+    @Column(length = 203)
+    private String teaser;
+
     private String country;
 
+    @Version
+    private Long version;
+
+    /**
+     * Time of the last write, used as Last-Modified of post details.
+     */
+    private Instant updatedAt;
+
+    /**
+     * Stored with (post_id, category_order) primary key for loading by post
+     * and (categories, post_id) index for filtering by category.
+     */
     @ElementCollection
+    @CollectionTable(
+            name = "post_categories",
+            joinColumns = @JoinColumn(name = "post_id"),
+            indexes = @Index(name = "idx_post_categories_category_post", columnList = "categories, post_id")
+    )
+    @OrderColumn(name = "category_order")
     private List<String> categories;
 
     private LocalDate createdAt;
     private Double rating;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id", nullable = false)
     private User user;
 
+    /**
+     * {@link PostFingerprint} of imported post, cleared when post is edited so it no longer matches the import.
+     * Null for posts created through API.
+     */
+    private Long fingerprint;
+
+    /**
+     * State of the post as it was loaded or last written without title and content, used to track changes.
+     */
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PostSnapshot loadedState;
+
+    @PrePersist
+    @PreUpdate
+    void onWrite() {
+        updatedAt = Instant.now();
+        updateTeaser();
+        updateFingerprint();
+    }
+
+    private void updateTeaser() {
+        teaser = teaserOf(content);
+    }
+
+    private void updateFingerprint() {
+        if (fingerprint != null
+                && fingerprint != PostFingerprint.of(title, content, country, user != null ? user.getId() : null, createdAt)) {
+            fingerprint = null;
+        }
+    }
+
+    /**
+     * Creates teaser of post content
+     *
+     * @param content post content
+     * @return beginning of content with ellipsis, or whole content if it is short
+     */
+    public static String teaserOf(String content) {
+        if (content == null || content.length() <= TEASER_LENGTH) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(TEASER_LENGTH - 1)) ? TEASER_LENGTH - 1 : TEASER_LENGTH;
+        return content.substring(0, end) + TEASER_ELLIPSIS;
+    }
+
 }
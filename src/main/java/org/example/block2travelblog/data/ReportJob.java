@@ -0,0 +1,64 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.block2travelblog.report.PostReportFormat;
+
+import java.time.Instant;
+
+/**
+ * Posts report generated in background and stored as a file on local disk.
+ * Completed report is reused for the same filter and format while posts data has not changed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "report_jobs")
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private ReportJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private PostReportFormat format;
+
+    /**
+     * SHA-256 of format and filter, identifies reports with the same content.
+     */
+    private String filterHash;
+
+    /**
+     * Filter serialized as JSON, used to build posts query when job is run.
+     */
+    private String filter;
+
+    /**
+     * Version of posts matching the filter the report was generated from, taken when job is started.
+     */
+    private String dataVersion;
+
+    /**
+     * Generated report file, set when job is completed.
+     */
+    private String artifactPath;
+
+    private long postCount;
+
+    private long sizeBytes;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String errorMessage;
+
+}
@@ -0,0 +1,11 @@
+package org.example.block2travelblog.data;
+
+/**
+ * Lifecycle state of posts report job.
+ */
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -25,6 +25,19 @@ public class User {
     private String email;
     private String password;
 
+    /**
+     * Maintained by follow operations with atomic updates, never written from entity.
+     */
+    @Column(insertable = false, updatable = false)
+    private long followerCount;
+
+    /**
+     * Set once follower count reaches the celebrity threshold, then posts of the user
+     * are merged into follower feeds on read instead of fan-out on write.
+     */
+    @Column(insertable = false, updatable = false)
+    private boolean celebrity;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
 //    @JsonBackReference
     private List<Post> posts;
@@ -0,0 +1,47 @@
+package org.example.block2travelblog.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Follow relationship between users.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@IdClass(UserFollow.Key.class)
+@Table(
+        name = "user_follows",
+        indexes = {
+                @Index(name = "idx_user_follows_followee", columnList = "followee_id, follower_id")
+        }
+)
+public class UserFollow {
+
+    @Id
+    private Long followerId;
+
+    @Id
+    private Long followeeId;
+
+    private Instant createdAt;
+
+    /**
+     * True when followee posts are not fanned out to feeds and are merged into feed on read.
+     */
+    private boolean followeeCelebrity;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long followerId;
+        private Long followeeId;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -23,5 +24,7 @@ public class ExtendedPostDto {
     private LocalDate createdAt;
     private Double rating;
     private UserDto author;
+    private Long version;
+    private Instant updatedAt;
 
 }
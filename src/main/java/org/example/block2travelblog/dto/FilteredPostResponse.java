@@ -1,19 +1,23 @@
 package org.example.block2travelblog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.util.List;
 
 /**
- * DTO for response with list of posts, number of pages and number of filtered elements (posts)
+ * DTO for response with list of posts, number of pages and number of filtered elements (posts).
+ * In keyset mode totals are not calculated and nextCursor points to the next page.
  */
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class FilteredPostResponse {
 
     private List<PostDto> list;
-    private int totalPages;
-    private long totalElements;
+    private Integer totalPages;
+    private Long totalElements;
+    private String nextCursor;
 
 }
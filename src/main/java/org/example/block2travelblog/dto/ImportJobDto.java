@@ -0,0 +1,37 @@
+package org.example.block2travelblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.block2travelblog.data.ImportJobStatus;
+
+import java.time.Instant;
+
+/**
+ * DTO for import job state and progress.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobDto {
+
+    private Long id;
+    private ImportJobStatus status;
+    private String fileName;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long importedCount;
+    private long duplicateCount;
+    private long failedCount;
+    private int committedChunks;
+
+    /**
+     * Records processed per second by the current or the last run
+     */
+    private double recordsPerSecond;
+
+    private String errorMessage;
+}
@@ -18,9 +18,11 @@ public class PostDto {
     private Long id;
     private String title;
     private String content;
+    private String teaser;
     private String country;
     private List<String> categories;
     private LocalDate createdAt;
     private Double rating;
     private Long userId;
+    private Long version;
 }
@@ -0,0 +1,45 @@
+package org.example.block2travelblog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * DTO for counts of posts per country, category, rating bucket and month.
+ * Each facet is restricted by all active filters except its own.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostFacetsResponse {
+
+    private Map<String, Long> countries;
+    private Map<String, Long> categories;
+    private Map<String, Long> ratings;
+    private Map<String, Long> months;
+
+    /**
+     * Label of rating bucket, e.g. "4-5" for ratings from 4.0 inclusive to 5.0 exclusive
+     *
+     * @param rating post rating
+     * @return bucket label
+     */
+    public static String ratingBucket(Double rating) {
+        long lowerBound = (long) Math.floor(rating);
+        return lowerBound + "-" + (lowerBound + 1);
+    }
+
+    /**
+     * Label of month bucket, e.g. "2025-12"
+     *
+     * @param date post creation date
+     * @return bucket label
+     */
+    public static String monthBucket(LocalDate date) {
+        return YearMonth.from(date).toString();
+    }
+}
@@ -19,10 +19,28 @@ public class PostQueryDto implements PostFilter {
     private Double minRating;
     private Long userId;
 
+    /**
+     * Words to search in title and content, results are ordered by relevance,
+     * or newest first while text index is disabled or being built.
+     * Words shorter than two characters are ignored, text without longer words matches no posts.
+     */
+    private String text;
+
     @NotNull(message = "page number is required")
     private int from;
 
     @NotNull(message = "page size is required")
     private int size;
 
+    /**
+     * Keyset pagination cursor returned as nextCursor by previous page.
+     * Empty string requests the first page in keyset mode, null keeps offset pagination by "from".
+     */
+    private String cursor;
+
+    /**
+     * Fields returned for each post, null returns full posts.
+     */
+    private PostView view;
+
 }
@@ -0,0 +1,21 @@
+package org.example.block2travelblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Set of post fields returned in list responses.
+ */
+public enum PostView {
+
+    /**
+     * Teaser instead of content, content is not read from database.
+     */
+    @JsonProperty("summary")
+    SUMMARY,
+
+    /**
+     * All post fields including content.
+     */
+    @JsonProperty("full")
+    FULL
+}
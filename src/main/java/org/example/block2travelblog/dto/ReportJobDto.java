@@ -0,0 +1,36 @@
+package org.example.block2travelblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.block2travelblog.data.ReportJobStatus;
+import org.example.block2travelblog.report.PostReportFormat;
+
+import java.time.Instant;
+
+/**
+ * DTO for report job state.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportJobDto {
+
+    private Long id;
+    private ReportJobStatus status;
+    private PostReportFormat format;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long postCount;
+    private long sizeBytes;
+
+    /**
+     * True if existing job for the same filter and posts data was returned instead of a new one
+     */
+    private boolean reused;
+
+    private String errorMessage;
+}
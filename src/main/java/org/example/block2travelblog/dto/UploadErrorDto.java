@@ -0,0 +1,17 @@
+package org.example.block2travelblog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for record of uploaded file which was not imported.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadErrorDto {
+
+    private long recordNumber;
+    private String message;
+}
@@ -1,20 +1,39 @@
 package org.example.block2travelblog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jackson.Jacksonized;
 
+import java.util.List;
+
 /**
- * DTO for resulting response after uploading data from json file
+ * DTO for resulting response after uploading data from json or ndjson file
  */
 @Getter
 @Builder
 @Jacksonized
 @RequiredArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class UploadedPostsRestResponse {
 
     private final String successMessage;
     private final String errorMessage;
 
+    /**
+     * Count of posts skipped because they were already uploaded or repeated in the file
+     */
+    private final int duplicateCount;
+
+    /**
+     * Ids of authors which do not exist, posts referencing them were not uploaded
+     */
+    private final List<Long> unknownUserIds;
+
+    /**
+     * Records which were not uploaded with the reason, limited to the first ones
+     */
+    private final List<UploadErrorDto> errors;
+
 }
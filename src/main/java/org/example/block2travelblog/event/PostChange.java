@@ -0,0 +1,13 @@
+package org.example.block2travelblog.event;
+
+/**
+ * Single change of a post.
+ *
+ * @param previous state before the change, null for created post
+ * @param current state after the change, null for deleted post
+ */
+public record PostChange(
+        PostSnapshot previous,
+        PostSnapshot current
+) {
+}
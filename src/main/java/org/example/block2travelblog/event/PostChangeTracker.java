@@ -0,0 +1,91 @@
+package org.example.block2travelblog.event;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.data.Post;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA entity listener which tracks post changes of every write path
+ * and publishes single {@link PostChangedEvent} per committed transaction.
+ * Loaded posts keep their state without title and content, so state before a change has no text.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostChangeTracker {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    void onLoad(Post post) {
+        post.setLoadedState(PostSnapshot.withoutText(post));
+    }
+
+    @PostPersist
+    void onPersist(Post post) {
+        register(null, PostSnapshot.of(post));
+        post.setLoadedState(PostSnapshot.withoutText(post));
+    }
+
+    @PostUpdate
+    void onUpdate(Post post) {
+        register(post.getLoadedState(), PostSnapshot.of(post));
+        post.setLoadedState(PostSnapshot.withoutText(post));
+    }
+
+    @PostRemove
+    void onRemove(Post post) {
+        register(post.getLoadedState() != null ? post.getLoadedState() : PostSnapshot.withoutText(post), null);
+    }
+
+    /**
+     * Tracks posts inserted without JPA, published with other changes of the transaction
+     *
+     * @param posts inserted posts
+     */
+    public void onBulkInsert(List<PostSnapshot> posts) {
+        posts.forEach(post -> register(null, post));
+    }
+
+    private void register(PostSnapshot previous, PostSnapshot current) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new PostChangedEvent(List.of(new PostChange(previous, current))));
+            return;
+        }
+
+        PendingChanges pendingChanges = TransactionSynchronizationManager.getSynchronizations()
+                .stream()
+                .filter(PendingChanges.class::isInstance)
+                .map(PendingChanges.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingChanges changes = new PendingChanges();
+                    TransactionSynchronizationManager.registerSynchronization(changes);
+                    return changes;
+                });
+
+        pendingChanges.changes.add(new PostChange(previous, current));
+    }
+
+    /**
+     * Changes collected during one transaction.
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<PostChange> changes = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            eventPublisher.publishEvent(new PostChangedEvent(List.copyOf(changes)));
+        }
+    }
+}
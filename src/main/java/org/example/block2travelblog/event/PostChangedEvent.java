@@ -0,0 +1,13 @@
+package org.example.block2travelblog.event;
+
+import java.util.List;
+
+/**
+ * Event published after commit of transaction which created, updated or deleted posts.
+ *
+ * @param changes post changes in the order they were flushed
+ */
+public record PostChangedEvent(
+        List<PostChange> changes
+) {
+}
@@ -0,0 +1,68 @@
+package org.example.block2travelblog.event;
+
+import org.example.block2travelblog.data.Post;
+import org.hibernate.Hibernate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Immutable copy of post fields used for filtering and text search.
+ *
+ * @param id post id
+ * @param title post title, null in state kept for a loaded post
+ * @param content post content, null in state kept for a loaded post
+ * @param country post country
+ * @param categories post categories, null when collection was not loaded
+ * @param createdAt creation date
+ * @param rating post rating
+ * @param userId author id
+ */
+public record PostSnapshot(
+        Long id,
+        String title,
+        String content,
+        String country,
+        List<String> categories,
+        LocalDate createdAt,
+        Double rating,
+        Long userId
+) {
+
+    /**
+     * Creates snapshot of the current post state
+     *
+     * @param post post entity
+     * @return post snapshot
+     */
+    public static PostSnapshot of(Post post) {
+        return of(post, true);
+    }
+
+    /**
+     * Creates snapshot of the current post state without title and content.
+     * Kept for every loaded post as state before a change, text is only read from state after a change.
+     *
+     * @param post post entity
+     * @return post snapshot with null title and content
+     */
+    public static PostSnapshot withoutText(Post post) {
+        return of(post, false);
+    }
+
+    private static PostSnapshot of(Post post, boolean withText) {
+        List<String> categories = post.getCategories() != null && Hibernate.isInitialized(post.getCategories())
+                ? List.copyOf(post.getCategories())
+                : null;
+
+        return new PostSnapshot(
+                post.getId(),
+                withText ? post.getTitle() : null,
+                withText ? post.getContent() : null,
+                post.getCountry(),
+                categories,
+                post.getCreatedAt(),
+                post.getRating(),
+                post.getUser() != null ? post.getUser().getId() : null);
+    }
+}
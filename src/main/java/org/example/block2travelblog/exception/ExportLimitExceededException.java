@@ -0,0 +1,10 @@
+package org.example.block2travelblog.exception;
+
+/**
+ * Exception thrown when maximum count of report exports is already running.
+ */
+public class ExportLimitExceededException extends RuntimeException {
+
+    public ExportLimitExceededException(String message) { super(message); }
+
+}
@@ -0,0 +1,12 @@
+package org.example.block2travelblog.exception;
+
+/**
+ * Exception thrown when imported posts keep conflicting with the same posts stored concurrently.
+ */
+public class ImportConflictException extends RuntimeException {
+
+    public ImportConflictException(String message) { super(message); }
+
+    public ImportConflictException(String message, Throwable cause) { super(message, cause); }
+
+}
@@ -0,0 +1,10 @@
+package org.example.block2travelblog.exception;
+
+/**
+ * Exception thrown when downloading a report whose job is not completed.
+ */
+public class ReportNotReadyException extends RuntimeException {
+
+    public ReportNotReadyException(String message) { super(message); }
+
+}
@@ -0,0 +1,106 @@
+package org.example.block2travelblog.feed;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.repository.FeedItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds committed new posts to feeds of followers of their authors.
+ * Fan-out runs on a bounded pool after commit so post creation does not wait for it,
+ * when the queue is full the publishing thread runs fan-out itself and slows down writers.
+ * With zero threads fan-out runs synchronously in the committing thread.
+ * Posts created in one transaction are fanned out with single statement.
+ * Posts of celebrities are not fanned out, they are merged into feeds on read.
+ */
+@Slf4j
+@Component
+public class FeedFanOutWorker {
+
+    private final FeedItemRepository feedItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public FeedFanOutWorker(FeedItemRepository feedItemRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${blog.feed.fan-out.threads:2}") int threads,
+                            @Value("${blog.feed.fan-out.queue-capacity:10000}") int queueCapacity) {
+        this.feedItemRepository = feedItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // fan-out may run in after commit callback of the post transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (threads < 1) {
+            this.executor = null;
+            return;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feed-fan-out-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Gauge.builder("feed.fan-out.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Posts waiting to be added to follower feeds")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Schedules fan-out of created posts
+     *
+     * @param event committed posts change
+     */
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        List<Long> postIds = event.changes().stream()
+                .filter(change -> change.previous() == null && change.current() != null)
+                .map(change -> change.current().id())
+                .toList();
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        if (executor != null) {
+            executor.execute(() -> fanOut(postIds));
+        } else {
+            fanOut(postIds);
+        }
+    }
+
+    private void fanOut(List<Long> postIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> feedItemRepository.fanOut(postIds));
+        } catch (RuntimeException e) {
+            log.error("Failed to add {} posts to follower feeds", postIds.size(), e);
+        }
+    }
+}
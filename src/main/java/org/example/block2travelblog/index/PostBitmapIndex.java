@@ -0,0 +1,444 @@
+package org.example.block2travelblog.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.dto.PostFacetsResponse;
+import org.example.block2travelblog.dto.PostFilter;
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.projection.PostCategoryRow;
+import org.example.block2travelblog.repository.projection.PostIndexRow;
+import org.example.block2travelblog.service.PostCursor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of post filtering fields.
+ * Keeps compressed bitmaps of post ids per country, category and user,
+ * and per distinct createdAt day and rating in sorted maps for range filters, ordering and facet counts.
+ * Built from database in background when application is ready and updated by committed post changes,
+ * searches use database until the build is finished. Index is disabled and searches keep using database
+ * when its build fails, too many changes arrive during the build or a post id does not fit unsigned int of bitmaps.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog.search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class PostBitmapIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    private static final long ID_RANGE_END = 0x100000000L;
+
+    private final PostRepository postRepository;
+
+    @Value("${blog.search.index.build-chunk-size:1000}")
+    private int buildChunkSize;
+
+    @Value("${blog.search.index.max-pending-changes:100000}")
+    private int maxPendingChanges;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap allIds = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCountry = new HashMap<>();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byUser = new HashMap<>();
+    private final NavigableMap<Long, RoaringBitmap> byCreatedAt = new TreeMap<>();
+    private final NavigableMap<Double, RoaringBitmap> byRating = new TreeMap<>();
+
+    /**
+     * Changes received while index is being built, applied when build is finished.
+     */
+    private final List<PostChangedEvent> pendingEvents = new ArrayList<>();
+    private int pendingChanges;
+    private volatile boolean ready;
+    private boolean disabled;
+
+    /**
+     * @return true when index is built and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Starts index build in background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread builder = new Thread(this::build, "post-bitmap-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void build() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Post bitmap index build failed, searches use database", e);
+            disable();
+        }
+    }
+
+    /**
+     * Loads all posts into index in chunks ordered by id
+     */
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        long afterId = 0L;
+        List<PostIndexRow> rows;
+
+        do {
+            rows = postRepository.findIndexRowsAfter(afterId, Limit.of(buildChunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Long lastId = rows.get(rows.size() - 1).getId();
+            if (!fitsIndex(lastId)) {
+                log.warn("Post bitmap index is disabled, post id {} is out of index range", lastId);
+                disable();
+                return;
+            }
+
+            Map<Long, List<String>> categories = postRepository
+                    .findCategoryRows(rows.stream().map(PostIndexRow::getId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(PostCategoryRow::getPostId,
+                            Collectors.mapping(PostCategoryRow::getCategory, Collectors.toList())));
+
+            lock.writeLock().lock();
+            try {
+                for (PostIndexRow row : rows) {
+                    add(new PostSnapshot(row.getId(), null, null, row.getCountry(),
+                            categories.getOrDefault(row.getId(), List.of()),
+                            row.getCreatedAt(), row.getRating(), row.getUserId()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            afterId = lastId;
+        } while (rows.size() == buildChunkSize);
+
+        lock.writeLock().lock();
+        try {
+            if (disabled) {
+                return;
+            }
+            List<PostChangedEvent> events = List.copyOf(pendingEvents);
+            pendingEvents.clear();
+            pendingChanges = 0;
+            for (PostChangedEvent event : events) {
+                apply(event);
+                if (disabled) {
+                    return;
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Post bitmap index built: {} posts in {} ms", allIds.getCardinality(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Applies committed post changes to index
+     *
+     * @param event committed posts change
+     */
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (disabled) {
+                return;
+            }
+            if (ready) {
+                apply(event);
+                return;
+            }
+            pendingChanges += event.changes().size();
+            if (pendingChanges > maxPendingChanges) {
+                log.warn("Post bitmap index is disabled, more than {} post changes arrived during its build", maxPendingChanges);
+                disable();
+                return;
+            }
+            pendingEvents.add(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds page of posts matching filter ordered by createdAt DESC, id DESC
+     *
+     * @param filter filtering fields
+     * @param cursor position after which page starts, null for first page
+     * @param offset count of matching posts to skip
+     * @param limit max count of ids in page
+     * @param countTotal whether total count of matching posts is needed
+     * @return page of post ids
+     */
+    public PostIndexPage search(PostFilter filter, PostCursor cursor, long offset, int limit, boolean countTotal) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = filterCandidates(filter, Dimension.CREATED_AT);
+
+            NavigableMap<Long, RoaringBitmap> days = byCreatedAt.descendingMap();
+            if (filter.getCreatedAfter() != null) {
+                days = days.headMap(filter.getCreatedAfter().toEpochDay(), false);
+            }
+            if (cursor != null) {
+                days = days.tailMap(cursor.createdAt().toEpochDay(), true);
+            }
+
+            List<Long> ids = new ArrayList<>(limit);
+            long totalElements = 0;
+            long skipped = 0;
+
+            for (Map.Entry<Long, RoaringBitmap> day : days.entrySet()) {
+                if (!countTotal && ids.size() >= limit) {
+                    break;
+                }
+
+                RoaringBitmap matches = candidates == null ? day.getValue() : RoaringBitmap.and(day.getValue(), candidates);
+                if (cursor != null && day.getKey() == cursor.createdAt().toEpochDay()) {
+                    matches = RoaringBitmap.remove(matches, cursor.id(), ID_RANGE_END);
+                }
+
+                int cardinality = matches.getCardinality();
+                totalElements += cardinality;
+
+                if (ids.size() >= limit) {
+                    continue;
+                }
+                if (skipped + cardinality <= offset) {
+                    skipped += cardinality;
+                    continue;
+                }
+
+                IntIterator iterator = matches.getReverseIntIterator();
+                while (iterator.hasNext() && ids.size() < limit) {
+                    int id = iterator.next();
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        ids.add(Integer.toUnsignedLong(id));
+                    }
+                }
+            }
+
+            return new PostIndexPage(ids, countTotal ? totalElements : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds all posts matching filter
+     *
+     * @param filter filtering fields
+     * @return new bitmap of matching post ids
+     */
+    public RoaringBitmap match(PostFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = filterCandidates(filter, null);
+            return candidates == null ? allIds.clone() : candidates.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts posts per country, category, rating bucket and month.
+     * Each facet is restricted by all filters except the filter of the same dimension.
+     *
+     * @param filter filtering fields
+     * @return facet counts
+     */
+    public PostFacetsResponse facets(PostFilter filter) {
+        lock.readLock().lock();
+        try {
+            return new PostFacetsResponse(
+                    countByBucket(byCountry, filterCandidates(filter, Dimension.COUNTRY), Function.identity()),
+                    countByBucket(byCategory, filterCandidates(filter, Dimension.CATEGORY), Function.identity()),
+                    countByBucket(byRating, filterCandidates(filter, Dimension.RATING), PostFacetsResponse::ratingBucket),
+                    countByBucket(byCreatedAt, filterCandidates(filter, Dimension.CREATED_AT),
+                            day -> PostFacetsResponse.monthBucket(LocalDate.ofEpochDay(day))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> Map<String, Long> countByBucket(Map<K, RoaringBitmap> bitmaps, RoaringBitmap candidates,
+                                                       Function<K, String> bucket) {
+        Map<String, Long> counts = new TreeMap<>();
+        bitmaps.forEach((value, bitmap) -> {
+            long count = candidates == null ? bitmap.getCardinality() : RoaringBitmap.andCardinality(bitmap, candidates);
+            if (count > 0) {
+                counts.merge(bucket.apply(value), count, Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Intersects bitmaps of all active filters except excluded dimension
+     *
+     * @return intersection, or null when no filter is active
+     */
+    private RoaringBitmap filterCandidates(PostFilter filter, Dimension excluded) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        if (filter.getCountry() != null && excluded != Dimension.COUNTRY) {
+            bitmaps.add(byCountry.getOrDefault(filter.getCountry(), EMPTY));
+        }
+        if (filter.getCategory() != null && excluded != Dimension.CATEGORY) {
+            bitmaps.add(byCategory.getOrDefault(filter.getCategory(), EMPTY));
+        }
+        if (filter.getUserId() != null && excluded != Dimension.USER) {
+            bitmaps.add(byUser.getOrDefault(filter.getUserId(), EMPTY));
+        }
+        if (filter.getMinRating() != null && excluded != Dimension.RATING) {
+            bitmaps.add(FastAggregation.or(byRating.tailMap(filter.getMinRating(), true).values().iterator()));
+        }
+        if (filter.getCreatedAfter() != null && excluded != Dimension.CREATED_AT) {
+            bitmaps.add(FastAggregation.or(
+                    byCreatedAt.tailMap(filter.getCreatedAfter().toEpochDay(), false).values().iterator()));
+        }
+
+        if (bitmaps.isEmpty()) {
+            return null;
+        }
+        return bitmaps.size() == 1 ? bitmaps.get(0) : FastAggregation.and(bitmaps.iterator());
+    }
+
+    private void apply(PostChangedEvent event) {
+        for (PostChange change : event.changes()) {
+            PostSnapshot post = change.current() != null ? change.current() : change.previous();
+            if (!fitsIndex(post.id())) {
+                log.warn("Post bitmap index is disabled, post id {} is out of index range", post.id());
+                disable();
+                return;
+            }
+        }
+        for (PostChange change : event.changes()) {
+            if (change.previous() != null) {
+                boolean keepCategories = change.current() != null && change.current().categories() == null;
+                remove(change.previous(), keepCategories);
+            }
+            if (change.current() != null) {
+                add(change.current());
+            }
+        }
+    }
+
+    private void add(PostSnapshot post) {
+        int id = toIndexId(post.id());
+        allIds.add(id);
+        if (post.country() != null) {
+            byCountry.computeIfAbsent(post.country(), key -> new RoaringBitmap()).add(id);
+        }
+        if (post.categories() != null) {
+            post.categories().forEach(category -> byCategory.computeIfAbsent(category, key -> new RoaringBitmap()).add(id));
+        }
+        if (post.userId() != null) {
+            byUser.computeIfAbsent(post.userId(), key -> new RoaringBitmap()).add(id);
+        }
+        if (post.createdAt() != null) {
+            byCreatedAt.computeIfAbsent(post.createdAt().toEpochDay(), key -> new RoaringBitmap()).add(id);
+        }
+        if (post.rating() != null) {
+            byRating.computeIfAbsent(post.rating(), key -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void remove(PostSnapshot post, boolean keepCategories) {
+        int id = toIndexId(post.id());
+        allIds.remove(id);
+        removeFrom(byCountry, post.country(), id);
+        removeFrom(byUser, post.userId(), id);
+        removeFrom(byCreatedAt, post.createdAt() != null ? post.createdAt().toEpochDay() : null, id);
+        removeFrom(byRating, post.rating(), id);
+
+        if (keepCategories) {
+            return;
+        }
+        if (post.categories() != null) {
+            post.categories().forEach(category -> removeFrom(byCategory, category, id));
+        } else {
+            List.copyOf(byCategory.keySet()).forEach(category -> removeFrom(byCategory, category, id));
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private enum Dimension {
+        COUNTRY, CATEGORY, USER, CREATED_AT, RATING
+    }
+
+    /**
+     * Stops index updates and releases its bitmaps, searches use database from now on
+     */
+    private void disable() {
+        lock.writeLock().lock();
+        try {
+            disabled = true;
+            ready = false;
+            pendingEvents.clear();
+            pendingChanges = 0;
+            allIds.clear();
+            byCountry.clear();
+            byCategory.clear();
+            byUser.clear();
+            byCreatedAt.clear();
+            byRating.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsIndex(Long id) {
+        return id != null && id >= 0 && id < ID_RANGE_END;
+    }
+
+    /**
+     * @param id post id checked by {@link #fitsIndex(Long)}
+     */
+    private static int toIndexId(Long id) {
+        return (int) id.longValue();
+    }
+}
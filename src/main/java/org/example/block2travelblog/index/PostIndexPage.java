@@ -0,0 +1,15 @@
+package org.example.block2travelblog.index;
+
+import java.util.List;
+
+/**
+ * Page of post ids found by {@link PostBitmapIndex}.
+ *
+ * @param ids post ids ordered by createdAt DESC, id DESC
+ * @param totalElements count of all matching posts, null when not requested
+ */
+public record PostIndexPage(
+        List<Long> ids,
+        Long totalElements
+) {
+}
@@ -0,0 +1,386 @@
+package org.example.block2travelblog.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.projection.PostTextRow;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post title and content.
+ * Keeps bitmap posting list per term and term frequencies per post,
+ * and ranks posts containing all query terms by BM25 with title terms weighted higher.
+ * Built from database in background when application is ready and updated by committed post changes,
+ * text searches use database until the build is finished. Index is disabled and text searches keep using
+ * database when its build fails, too many changes arrive during the build or a post id does not fit
+ * unsigned int of bitmaps.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog.search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class PostTextIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final long ID_RANGE_END = 0x100000000L;
+
+    private static final Comparator<ScoredPost> RANK_ORDER = Comparator
+            .comparingDouble(ScoredPost::score)
+            .thenComparingInt(ScoredPost::id);
+
+    private final PostRepository postRepository;
+
+    @Value("${blog.search.index.build-chunk-size:1000}")
+    private int buildChunkSize;
+
+    @Value("${blog.search.index.max-pending-changes:100000}")
+    private int maxPendingChanges;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+    private final Map<Integer, TermVector> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Changes received while index is being built, applied when build is finished.
+     */
+    private final List<PostChangedEvent> pendingEvents = new ArrayList<>();
+    private int pendingChanges;
+    private volatile boolean ready;
+    private boolean disabled;
+
+    /**
+     * @return true when index is built and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Starts index build in background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread builder = new Thread(this::build, "post-text-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void build() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Post text index build failed, text searches use database", e);
+            disable();
+        }
+    }
+
+    /**
+     * Loads title and content of all posts into index in chunks ordered by id
+     */
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        long afterId = 0L;
+        List<PostTextRow> rows;
+
+        do {
+            rows = postRepository.findTextRowsAfter(afterId, Limit.of(buildChunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Long lastId = rows.get(rows.size() - 1).getId();
+            if (!fitsIndex(lastId)) {
+                log.warn("Post text index is disabled, post id {} is out of index range", lastId);
+                disable();
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (disabled) {
+                    return;
+                }
+                rows.forEach(row -> add(row.getId(), row.getTitle(), row.getContent()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            afterId = lastId;
+        } while (rows.size() == buildChunkSize);
+
+        lock.writeLock().lock();
+        try {
+            if (disabled) {
+                return;
+            }
+            List<PostChangedEvent> events = List.copyOf(pendingEvents);
+            pendingEvents.clear();
+            pendingChanges = 0;
+            for (PostChangedEvent event : events) {
+                apply(event);
+                if (disabled) {
+                    return;
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Post text index built: {} posts, {} terms in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Applies committed post changes to index
+     *
+     * @param event committed posts change
+     */
+    @EventListener
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (disabled) {
+                return;
+            }
+            if (ready) {
+                apply(event);
+                return;
+            }
+            pendingChanges += event.changes().size();
+            if (pendingChanges > maxPendingChanges) {
+                log.warn("Post text index is disabled, more than {} post changes arrived during its build", maxPendingChanges);
+                disable();
+                return;
+            }
+            pendingEvents.add(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds page of posts containing all terms of the text, ordered by relevance
+     *
+     * @param text search text
+     * @param candidates ids of posts allowed by other filters
+     * @param offset count of matching posts to skip
+     * @param limit max count of ids in page
+     * @return page of post ids with total count of matching posts
+     */
+    public PostIndexPage search(String text, RoaringBitmap candidates, long offset, int limit) {
+        List<String> terms = tokenize(text).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return new PostIndexPage(List.of(), 0L);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            terms.forEach(term -> bitmaps.add(postings.getOrDefault(term, EMPTY)));
+            bitmaps.add(candidates);
+            RoaringBitmap matches = FastAggregation.and(bitmaps.iterator());
+
+            int topSize = (int) Math.min(offset + limit, matches.getCardinality());
+            PriorityQueue<ScoredPost> top = new PriorityQueue<>(Math.max(topSize, 1), RANK_ORDER);
+            double[] idf = terms.stream().mapToDouble(term -> idf(postings.getOrDefault(term, EMPTY).getCardinality())).toArray();
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+
+            IntIterator iterator = matches.getIntIterator();
+            while (iterator.hasNext() && topSize > 0) {
+                int id = iterator.next();
+                ScoredPost scoredPost = new ScoredPost(id, score(documents.get(id), terms, idf, averageLength));
+                if (top.size() < topSize) {
+                    top.add(scoredPost);
+                } else if (RANK_ORDER.compare(scoredPost, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scoredPost);
+                }
+            }
+
+            List<ScoredPost> ranked = new ArrayList<>(top);
+            ranked.sort(RANK_ORDER.reversed());
+            List<Long> ids = ranked.stream()
+                    .skip(offset)
+                    .map(scoredPost -> Integer.toUnsignedLong(scoredPost.id()))
+                    .toList();
+
+            return new PostIndexPage(ids, (long) matches.getCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower case terms of letters and digits
+     *
+     * @param text text to split
+     * @return terms in order of occurrence
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCaseText.length(); i++) {
+            boolean termChar = i < lowerCaseText.length() && Character.isLetterOrDigit(lowerCaseText.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    terms.add(lowerCaseText.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void apply(PostChangedEvent event) {
+        for (PostChange change : event.changes()) {
+            PostSnapshot post = change.current() != null ? change.current() : change.previous();
+            if (!fitsIndex(post.id())) {
+                log.warn("Post text index is disabled, post id {} is out of index range", post.id());
+                disable();
+                return;
+            }
+        }
+        for (PostChange change : event.changes()) {
+            if (change.previous() != null) {
+                remove(change.previous().id());
+            }
+            if (change.current() != null) {
+                add(change.current().id(), change.current().title(), change.current().content());
+            }
+        }
+    }
+
+    private void add(Long postId, String title, String content) {
+        int id = toIndexId(postId);
+        remove(postId);
+
+        Map<String, Integer> frequencies = new TreeMap<>();
+        tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(content).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        TermVector termVector = TermVector.of(frequencies);
+        for (String term : termVector.terms()) {
+            postings.computeIfAbsent(term, key -> new RoaringBitmap()).add(id);
+        }
+        documents.put(id, termVector);
+        totalLength += termVector.length();
+    }
+
+    private void remove(Long postId) {
+        int id = toIndexId(postId);
+        TermVector termVector = documents.remove(id);
+        if (termVector == null) {
+            return;
+        }
+
+        for (String term : termVector.terms()) {
+            RoaringBitmap bitmap = postings.get(term);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= termVector.length();
+    }
+
+    /**
+     * Stops index updates and releases its postings, text searches use database from now on
+     */
+    private void disable() {
+        lock.writeLock().lock();
+        try {
+            disabled = true;
+            ready = false;
+            pendingEvents.clear();
+            pendingChanges = 0;
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsIndex(Long id) {
+        return id != null && id >= 0 && id < ID_RANGE_END;
+    }
+
+    /**
+     * @param id post id checked by {@link #fitsIndex(Long)}
+     */
+    private static int toIndexId(Long id) {
+        return (int) id.longValue();
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double score(TermVector termVector, List<String> terms, double[] idf, double averageLength) {
+        double score = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            int frequency = termVector.frequency(terms.get(i));
+            score += idf[i] * frequency * (K1 + 1)
+                    / (frequency + K1 * (1 - B + B * termVector.length() / averageLength));
+        }
+        return score;
+    }
+
+    private record ScoredPost(int id, double score) {
+    }
+
+    /**
+     * Sorted terms of single post with their weighted frequencies.
+     */
+    private record TermVector(String[] terms, int[] frequencies, int length) {
+
+        static TermVector of(Map<String, Integer> sortedFrequencies) {
+            String[] terms = sortedFrequencies.keySet().toArray(String[]::new);
+            int[] frequencies = sortedFrequencies.values().stream().mapToInt(Integer::intValue).toArray();
+            return new TermVector(terms, frequencies, Arrays.stream(frequencies).sum());
+        }
+
+        int frequency(String term) {
+            int index = Arrays.binarySearch(terms, term);
+            return index >= 0 ? frequencies[index] : 0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.block2travelblog.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.config.RabbitConfig;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous publisher of email messages.
+ * Messages are put to bounded queue and published in batches by a dedicated sender thread,
+ * so callers do not wait for broker confirms. Each message completes when broker confirms it.
+ * When queue is full callers wait for free space up to enqueue timeout, so they are slowed down
+ * to the publishing rate instead of losing messages. Messages are rejected when the timeout expires
+ * or when circuit breaker is open after consecutive confirm failures, callers are expected to retry later.
+ */
+@Slf4j
+@Component
+public class NotificationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Duration enqueueTimeout;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Timer publishLatency;
+    private final Counter confirmFailures;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedCircuitOpen;
+
+    private volatile boolean running;
+    private Thread sender;
+
+    public NotificationPublisher(RabbitTemplate rabbitTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${blog.notification.publisher.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${blog.notification.publisher.batch-size:100}") int batchSize,
+                                 @Value("${blog.notification.publisher.confirm-timeout:10s}") Duration confirmTimeout,
+                                 @Value("${blog.notification.publisher.enqueue-timeout:5s}") Duration enqueueTimeout,
+                                 @Value("${blog.notification.publisher.failure-threshold:5}") int failureThreshold,
+                                 @Value("${blog.notification.publisher.open-duration:30s}") Duration openDuration) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.enqueueTimeout = enqueueTimeout;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+
+        Gauge.builder("notification.publisher.queue.size", queue, BlockingQueue::size)
+                .description("Messages waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("notification.publisher.circuit.open", circuitBreaker, breaker -> breaker.isClosed() ? 0 : 1)
+                .description("1 when publishing is suspended after confirm failures")
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("notification.publisher.latency")
+                .description("Time from enqueueing message to broker confirm")
+                .register(meterRegistry);
+        this.confirmFailures = Counter.builder("notification.publisher.confirm.failures")
+                .description("Messages rejected, timed out or failed by broker")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("notification.publisher.rejected")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.rejectedCircuitOpen = Counter.builder("notification.publisher.rejected")
+                .tag("reason", "circuit-open")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        sender = new Thread(this::sendLoop, "notification-publisher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        sender.join(confirmTimeout.toMillis());
+
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(message -> message.result().completeExceptionally(
+                new RejectedExecutionException("Notification publisher is stopped")));
+    }
+
+    /**
+     * Puts message to publishing queue, waits for free space in the queue up to enqueue timeout
+     *
+     * @param emailMessage message to publish
+     * @param messageId message id, lets consumers skip redelivered messages
+     * @return future completed when broker confirmed the message, or failed when message was rejected
+     */
+    public CompletableFuture<Void> publish(EmailMessage emailMessage, String messageId) {
+        CircuitBreaker.Admission admission = circuitBreaker.admit();
+        if (admission == CircuitBreaker.Admission.REJECTED) {
+            rejectedCircuitOpen.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Broker is unavailable, publishing suspended"));
+        }
+
+        PendingMessage message = new PendingMessage(emailMessage, messageId, System.nanoTime(),
+                admission == CircuitBreaker.Admission.PROBE, new CompletableFuture<>());
+        try {
+            if (!queue.offer(message, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejectedQueueFull.increment();
+                return reject(message, new RejectedExecutionException("Notification queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return reject(message, new RejectedExecutionException("Interrupted while waiting for notification queue"));
+        }
+        return message.result();
+    }
+
+    private CompletableFuture<Void> reject(PendingMessage message, RejectedExecutionException e) {
+        if (message.probe()) {
+            circuitBreaker.onProbeCancelled();
+        }
+        return CompletableFuture.failedFuture(e);
+    }
+
+    private void sendLoop() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to publish batch of {} notifications", batch.size(), e);
+                batch.forEach(message -> complete(message, null, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingMessage> batch) {
+        if (!circuitBreaker.isClosed()) {
+            // only probe messages are sent until broker confirms one of them
+            List<PendingMessage> suspended = batch.stream().filter(message -> !message.probe()).toList();
+            rejectedCircuitOpen.increment(suspended.size());
+            suspended.forEach(message -> message.result().completeExceptionally(
+                    new RejectedExecutionException("Broker is unavailable, publishing suspended")));
+            batch.removeAll(suspended);
+            if (batch.isEmpty()) {
+                return;
+            }
+        }
+
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        rabbitTemplate.invoke(operations -> {
+            for (PendingMessage message : batch) {
+                CorrelationData correlationData = new CorrelationData(message.messageId());
+                operations.convertAndSend(RabbitConfig.EXCHANGE_NAME, RabbitConfig.ROUTING_KEY, message.emailMessage(), amqpMessage -> {
+                    amqpMessage.getMessageProperties().setMessageId(message.messageId());
+                    return amqpMessage;
+                }, correlationData);
+                correlations.add(correlationData);
+            }
+            return null;
+        });
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage message = batch.get(i);
+            correlations.get(i).getFuture()
+                    .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((confirm, error) -> complete(message, confirm, error));
+        }
+    }
+
+    private void complete(PendingMessage message, CorrelationData.Confirm confirm, Throwable error) {
+        if (message.result().isDone()) {
+            return;
+        }
+        publishLatency.record(System.nanoTime() - message.enqueuedAt(), TimeUnit.NANOSECONDS);
+
+        if (error == null && confirm != null && confirm.isAck()) {
+            circuitBreaker.onSuccess();
+            message.result().complete(null);
+            return;
+        }
+
+        confirmFailures.increment();
+        circuitBreaker.onFailure();
+        message.result().completeExceptionally(error != null
+                ? error
+                : new AmqpException("Message " + message.messageId() + " was not confirmed: " + (confirm != null ? confirm.getReason() : null)));
+    }
+
+    private record PendingMessage(EmailMessage emailMessage, String messageId, long enqueuedAt, boolean probe,
+                                  CompletableFuture<Void> result) {
+    }
+
+    /**
+     * Opens after consecutive failures and rejects requests for open duration,
+     * then becomes half-open and admits a single probe request.
+     * Success closes the breaker, failure of the probe opens it for another open duration.
+     */
+    static class CircuitBreaker {
+
+        enum Admission {
+            ALLOWED,
+            PROBE,
+            REJECTED
+        }
+
+        private enum State {
+            CLOSED,
+            OPEN,
+            HALF_OPEN
+        }
+
+        private final int failureThreshold;
+        private final long openDurationNanos;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openDurationNanos = openDuration.toNanos();
+        }
+
+        /**
+         * @return ALLOWED when closed, PROBE for the first request after open duration, REJECTED otherwise
+         */
+        synchronized Admission admit() {
+            if (state == State.CLOSED) {
+                return Admission.ALLOWED;
+            }
+            if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+                state = State.HALF_OPEN;
+                return Admission.PROBE;
+            }
+            return Admission.REJECTED;
+        }
+
+        synchronized boolean isClosed() {
+            return state == State.CLOSED;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openUntil = System.nanoTime() + openDurationNanos;
+            }
+        }
+
+        /**
+         * Lets the next request probe again when admitted probe was not sent
+         */
+        synchronized void onProbeCancelled() {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+                openUntil = System.nanoTime();
+            }
+        }
+    }
+}
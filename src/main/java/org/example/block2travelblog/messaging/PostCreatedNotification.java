@@ -0,0 +1,17 @@
+package org.example.block2travelblog.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of post created outbox event, expanded to email messages when relayed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCreatedNotification {
+    private Long postId;
+    private String authorName;
+    private String title;
+}
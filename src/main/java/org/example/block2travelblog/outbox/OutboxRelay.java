@@ -0,0 +1,207 @@
+package org.example.block2travelblog.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.data.OutboxEvent;
+import org.example.block2travelblog.messaging.PostCreatedNotification;
+import org.example.block2travelblog.repository.OutboxEventRepository;
+import org.example.block2travelblog.service.PostCreatedNotificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox events to message broker in batches.
+ * Event is deleted only after broker confirmed all its messages, so delivery is at least once.
+ * Failed events are retried with exponential backoff without blocking events behind them.
+ * Due events are claimed by moving their next attempt time forward before publishing,
+ * so concurrent relays on other instances skip them until the claim expires.
+ * Highest confirmed event id is exported as "outbox.relay.high.water.mark" metric.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PostCreatedNotificationService postCreatedNotificationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimDuration;
+
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       PostCreatedNotificationService postCreatedNotificationService,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${blog.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${blog.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${blog.outbox.relay.confirm-timeout:10s}") Duration confirmTimeout,
+                       @Value("${blog.outbox.relay.initial-backoff:1s}") Duration initialBackoff,
+                       @Value("${blog.outbox.relay.max-backoff:5m}") Duration maxBackoff,
+                       @Value("${blog.outbox.relay.claim-duration:1m}") Duration claimDuration) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.postCreatedNotificationService = postCreatedNotificationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        // claim outlives waiting for confirms, so claimed event is not published twice
+        this.claimDuration = claimDuration.compareTo(confirmTimeout) > 0 ? claimDuration : confirmTimeout.multipliedBy(2);
+
+        Gauge.builder("outbox.relay.high.water.mark", highWaterMark, AtomicLong::get)
+                .description("Highest id of outbox event confirmed by broker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates outbox event with payload serialized as JSON, due for publishing immediately
+     *
+     * @param eventType event type
+     * @param payload event data
+     * @param objectMapper mapper used to serialize payload
+     * @return new outbox event
+     */
+    public static OutboxEvent newEvent(String eventType, Object payload, ObjectMapper objectMapper) {
+        Instant now = Instant.now();
+        try {
+            return new OutboxEvent(null, eventType, objectMapper.writeValueAsString(payload), now, 0, now, null, null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox event " + eventType, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.outbox.relay.fixed-delay:1000}")
+    void relayScheduled() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    /**
+     * Claims and publishes due events batch by batch until there is no full batch left
+     *
+     * @return count of events confirmed by broker
+     */
+    public int relay() {
+        int confirmedCount = 0;
+        List<OutboxEvent> batch;
+        do {
+            Instant now = Instant.now();
+            batch = outboxEventRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(now, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<OutboxEvent> claimed = claim(batch, now);
+            if (!claimed.isEmpty()) {
+                confirmedCount += relayBatch(claimed);
+            }
+        } while (batch.size() == batchSize);
+        return confirmedCount;
+    }
+
+    private List<OutboxEvent> claim(List<OutboxEvent> batch, Instant now) {
+        String claimToken = UUID.randomUUID().toString();
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Integer claimedCount = transactionTemplate.execute(status ->
+                outboxEventRepository.claim(ids, claimToken, now, now.plus(claimDuration)));
+        return claimedCount == null || claimedCount == 0
+                ? List.of()
+                : outboxEventRepository.findByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    private int relayBatch(List<OutboxEvent> batch) {
+        Map<OutboxEvent, CompletableFuture<Void>> confirms = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            try {
+                confirms.put(event, publish(event));
+            } catch (RuntimeException e) {
+                confirms.put(event, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        List<Long> confirmedIds = new ArrayList<>();
+        List<OutboxEvent> failedEvents = new ArrayList<>();
+        for (Map.Entry<OutboxEvent, CompletableFuture<Void>> confirm : confirms.entrySet()) {
+            OutboxEvent event = confirm.getKey();
+            try {
+                confirm.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmedIds.add(event.getId());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} was not published, attempt {}: {}", event.getId(), event.getAttempts() + 1, e.getMessage());
+                failedEvents.add(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedEvents.add(event);
+            }
+        }
+
+        if (!confirmedIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(confirmedIds);
+            highWaterMark.accumulateAndGet(confirmedIds.get(confirmedIds.size() - 1), Math::max);
+        }
+
+        Instant now = Instant.now();
+        for (OutboxEvent event : failedEvents) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(getBackoff(event.getAttempts())));
+        }
+        outboxEventRepository.saveAll(failedEvents);
+
+        return confirmedIds.size();
+    }
+
+    private CompletableFuture<Void> publish(OutboxEvent event) {
+        if (!OutboxEvent.POST_CREATED.equals(event.getEventType())) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unknown outbox event type: " + event.getEventType()));
+        }
+        try {
+            PostCreatedNotification notification = objectMapper.readValue(event.getPayload(), PostCreatedNotification.class);
+            if (event.getRecipientChunks() == null) {
+                // recipients are resolved once, retries reuse them with the same message ids
+                event.setRecipientChunks(objectMapper.writeValueAsString(postCreatedNotificationService.resolveRecipientChunks()));
+                outboxEventRepository.save(event);
+            }
+            List<Long> recipientChunks = Arrays.asList(objectMapper.readValue(event.getRecipientChunks(), Long[].class));
+            return postCreatedNotificationService.sendPostCreatedNotification(notification, "outbox-" + event.getId(), recipientChunks);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.block2travelblog.report;
+
+import lombok.Getter;
+import org.example.block2travelblog.exception.ExportLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits report exports streamed to clients, each of them holds a database connection
+ * until its last row is written, so slow clients can not take the whole connection pool.
+ */
+@Component
+public class PostExportLimiter {
+
+    private final Semaphore permits;
+
+    /**
+     * Time given to a streamed export, including writing to the client.
+     */
+    @Getter
+    private final Duration exportTimeout;
+
+    public PostExportLimiter(@Value("${blog.report.max-concurrent-exports:4}") int maxConcurrentExports,
+                             @Value("${blog.report.export-timeout:10m}") Duration exportTimeout) {
+        this.permits = new Semaphore(maxConcurrentExports);
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * Takes a permit for export without waiting
+     *
+     * @return permit to close when export is finished
+     * @throws ExportLimitExceededException if maximum count of exports is running
+     */
+    public Permit acquire() {
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException("Too many reports are being exported, retry later");
+        }
+        return new Permit();
+    }
+
+    /**
+     * Export permit, released once however many times it is closed.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
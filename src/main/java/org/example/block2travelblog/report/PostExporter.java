@@ -0,0 +1,169 @@
+package org.example.block2travelblog.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.projection.PostExportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes posts report straight from database cursor to output stream.
+ * CSV and newline-delimited JSON rows are serialized one by one into a buffer,
+ * XLSX rows go through {@link PostXlsxReportWriter}, so memory use does not depend on count of posts.
+ */
+@Component
+public class PostExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] CSV_COLUMNS = {"id", "title", "content", "country", "categories", "createdAt", "rating", "userId"};
+
+    private final PostRepository postRepository;
+    private final ObjectWriter ndjsonRowWriter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final int xlsxRowWindow;
+    private final Duration exportTimeout;
+
+    public PostExporter(PostRepository postRepository,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${blog.report.fetch-size:500}") int fetchSize,
+                        @Value("${blog.report.row-window:100}") int xlsxRowWindow,
+                        @Value("${blog.report.export-timeout:10m}") Duration exportTimeout) {
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.ndjsonRowWriter = objectMapper.writerFor(PostExportRow.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // bounds the cursor statement, rows already fetched are bounded by the deadline in stream
+        this.transactionTemplate.setTimeout((int) exportTimeout.toSeconds());
+        this.fetchSize = fetchSize;
+        this.xlsxRowWindow = xlsxRowWindow;
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * Writes posts matching specification in the format
+     *
+     * @param specification filtering specification
+     * @param format report format
+     * @param gzip if output is gzip-compressed, ignored for XLSX which is compressed itself
+     * @param outputStream stream to write to, left open
+     * @return count of written posts
+     * @throws IOException if output can not be written or export takes longer than export timeout
+     */
+    public long export(Specification<Post> specification, PostReportFormat format, boolean gzip,
+                       OutputStream outputStream) throws IOException {
+        if (format == PostReportFormat.XLSX) {
+            return exportXlsx(specification, outputStream);
+        }
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : null;
+        OutputStream target = gzipStream != null ? gzipStream : outputStream;
+
+        long count = format == PostReportFormat.CSV
+                ? exportCsv(specification, target)
+                : exportNdjson(specification, target);
+
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        outputStream.flush();
+        return count;
+    }
+
+    private long exportXlsx(Specification<Post> specification, OutputStream outputStream) throws IOException {
+        try (PostXlsxReportWriter reportWriter = new PostXlsxReportWriter(xlsxRowWindow)) {
+            long count = stream(specification, reportWriter::write);
+            reportWriter.finish(outputStream);
+            return count;
+        }
+    }
+
+    private long exportCsv(Specification<Post> specification, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writeCsvRow(writer, (Object[]) CSV_COLUMNS);
+        long count = stream(specification, row -> writeCsvRow(writer, row.id(), row.title(), row.content(), row.country(),
+                String.join(", ", row.categories()), row.createdAt(), row.rating(), row.userId()));
+        writer.flush();
+        return count;
+    }
+
+    private long exportNdjson(Specification<Post> specification, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long count = stream(specification, row -> {
+            ndjsonRowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+        return count;
+    }
+
+    private long stream(Specification<Post> specification, RowWriter rowWriter) throws IOException {
+        long[] count = new long[1];
+        long deadline = System.nanoTime() + exportTimeout.toNanos();
+        try {
+            transactionTemplate.executeWithoutResult(status -> postRepository.streamExportRows(specification, fetchSize, row -> {
+                try {
+                    if (System.nanoTime() - deadline > 0) {
+                        throw new IOException("Export timed out after " + exportTimeout + ", " + count[0] + " posts written");
+                    }
+                    rowWriter.write(row);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes CSV line as in RFC 4180, values with separators, quotes or line breaks are quoted
+     */
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PostExportRow row) throws IOException;
+    }
+}
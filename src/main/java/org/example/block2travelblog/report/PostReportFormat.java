@@ -0,0 +1,79 @@
+package org.example.block2travelblog.report;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Format of posts report chosen by Accept header.
+ */
+public enum PostReportFormat {
+
+    XLSX(MediaType.parseMediaType(PostXlsxReportWriter.CONTENT_TYPE), "xlsx"),
+    CSV(new MediaType("text", "csv"), "csv"),
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    PostReportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getFileName() {
+        return "posts." + extension;
+    }
+
+    /**
+     * Chooses format accepted with the highest quality, XLSX when any format is accepted.
+     * Octet stream is accepted as XLSX, which was the only report format before.
+     *
+     * @param accept value of Accept header, may be null
+     * @return accepted format, empty if none of the formats is accepted
+     */
+    public static Optional<PostReportFormat> fromAcceptHeader(String accept) {
+        List<MediaType> acceptedTypes = StringUtils.hasText(accept)
+                ? new ArrayList<>(MediaType.parseMediaTypes(accept))
+                : new ArrayList<>(List.of(MediaType.ALL));
+        acceptedTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            if (acceptedType.equalsTypeAndSubtype(MediaType.APPLICATION_OCTET_STREAM)) {
+                return Optional.of(XLSX);
+            }
+            for (PostReportFormat format : values()) {
+                if (acceptedType.includes(format.mediaType)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return media types of all formats
+     */
+    public static List<MediaType> supportedMediaTypes() {
+        List<MediaType> mediaTypes = new ArrayList<>();
+        for (PostReportFormat format : values()) {
+            mediaTypes.add(format.mediaType);
+        }
+        return mediaTypes;
+    }
+}
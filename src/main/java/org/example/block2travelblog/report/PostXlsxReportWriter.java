@@ -0,0 +1,103 @@
+package org.example.block2travelblog.report;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.example.block2travelblog.repository.projection.PostExportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes posts report to XLSX keeping only a window of rows in memory.
+ * Rows leaving the window are flushed to compressed temporary file, which is removed on close.
+ * Column widths are derived from tracked max length of written values instead of measuring every cell.
+ */
+public class PostXlsxReportWriter implements Closeable {
+
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final String[] COLUMNS = {"id", "title", "content", "country", "categories", "createdAt", "rating", "userId"};
+    private static final int CONTENT_COLUMN = 2;
+    private static final int MAX_COLUMN_CHARS = 100;
+    private static final int COLUMN_PADDING_CHARS = 2;
+
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final int[] maxLengths = new int[COLUMNS.length];
+    private int rowNumber;
+
+    /**
+     * @param rowWindow count of last written rows kept in memory
+     */
+    public PostXlsxReportWriter(int rowWindow) {
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet("Posts");
+
+        Row headerRow = sheet.createRow(rowNumber++);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            setCell(headerRow, i, COLUMNS[i]);
+        }
+    }
+
+    /**
+     * Appends row of the post
+     *
+     * @param post post fields
+     */
+    public void write(PostExportRow post) {
+        Row row = sheet.createRow(rowNumber++);
+        setCell(row, 0, post.id());
+        setCell(row, 1, post.title());
+        setCell(row, 2, post.content());
+        setCell(row, 3, post.country());
+        setCell(row, 4, String.join(", ", post.categories()));
+        setCell(row, 5, post.createdAt() != null ? post.createdAt().toString() : null);
+        setCell(row, 6, post.rating());
+        setCell(row, 7, post.userId());
+    }
+
+    /**
+     * Sets column widths and writes the workbook
+     *
+     * @param outputStream stream to write to, left open
+     * @throws IOException if workbook can not be written
+     */
+    public void finish(OutputStream outputStream) throws IOException {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            // content may be very long, it keeps default width
+            if (i != CONTENT_COLUMN) {
+                sheet.setColumnWidth(i, (Math.min(maxLengths[i], MAX_COLUMN_CHARS) + COLUMN_PADDING_CHARS) * 256);
+            }
+        }
+        workbook.write(outputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void setCell(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+            track(column, value.length());
+        }
+    }
+
+    private void setCell(Row row, int column, Number value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value.doubleValue());
+            track(column, value.toString().length());
+        }
+    }
+
+    private void track(int column, int length) {
+        if (length > maxLengths[column]) {
+            maxLengths[column] = length;
+        }
+    }
+}
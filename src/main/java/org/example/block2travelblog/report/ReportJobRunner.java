@@ -0,0 +1,274 @@
+package org.example.block2travelblog.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.data.ReportJob;
+import org.example.block2travelblog.data.ReportJobStatus;
+import org.example.block2travelblog.dto.PostFilter;
+import org.example.block2travelblog.dto.PostFilteredFieldsDto;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.ReportJobRepository;
+import org.example.block2travelblog.repository.specification.PostSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates report jobs in background on a bounded pool.
+ * Report is written to a temporary file which is moved to its final name when complete,
+ * so a stored report file is never partial. Expired reports are deleted with their files.
+ * Jobs are claimed in database, so a job is run once even if several instances resume it,
+ * but report files are read from {@code blog.report.dir} of the instance serving the download:
+ * with several instances the directory has to be shared storage mounted on all of them.
+ */
+@Slf4j
+@Component
+public class ReportJobRunner {
+
+    /**
+     * Length of error message column.
+     */
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReportJobRepository reportJobRepository;
+    private final PostRepository postRepository;
+    private final PostExporter postExporter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Path reportDirectory;
+    private final Duration retention;
+    private final Duration staleAfter;
+    private final boolean resumeOnStartup;
+    private final Set<Long> localJobIds = ConcurrentHashMap.newKeySet();
+
+    public ReportJobRunner(ReportJobRepository reportJobRepository,
+                           PostRepository postRepository,
+                           PostExporter postExporter,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${blog.report.dir:${java.io.tmpdir}/blog-reports}") Path reportDirectory,
+                           @Value("${blog.report.jobs.threads:2}") int threads,
+                           @Value("${blog.report.jobs.queue-capacity:100}") int queueCapacity,
+                           @Value("${blog.report.jobs.retention:1d}") Duration retention,
+                           @Value("${blog.report.jobs.stale-after:30m}") Duration staleAfter,
+                           @Value("${blog.report.jobs.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.reportJobRepository = reportJobRepository;
+        this.postRepository = postRepository;
+        this.postExporter = postExporter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reportDirectory = reportDirectory;
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+        this.resumeOnStartup = resumeOnStartup;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resubmits jobs which were queued or running when application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (resumeOnStartup) {
+            resubmitPending();
+        }
+    }
+
+    /**
+     * Takes over queued jobs and jobs which are running longer than a run can take,
+     * so their instance is considered stopped
+     */
+    @Scheduled(fixedDelayString = "${blog.report.jobs.sweep-fixed-delay:60000}",
+            initialDelayString = "${blog.report.jobs.sweep-fixed-delay:60000}")
+    public void sweep() {
+        if (resumeOnStartup) {
+            resubmitPending();
+        }
+    }
+
+    /**
+     * Queues job for running, job already queued on this instance is not queued again
+     *
+     * @param jobId queued job id
+     * @throws RejectedExecutionException if queue of jobs is full
+     */
+    public void submit(Long jobId) {
+        if (!localJobIds.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    localJobIds.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            localJobIds.remove(jobId);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads version of posts matching the filter, any write of these posts changes it.
+     * Version read before generation may be older than data in the report, never newer,
+     * so a report is reused only while it is at least as fresh as the data.
+     *
+     * @param filter report filter
+     * @return current version of posts data matching the filter
+     */
+    public String currentDataVersion(PostFilter filter) {
+        return postRepository.findDataVersion(PostSpecifications.matchesFilter(filter)).asString();
+    }
+
+    private void resubmitPending() {
+        Instant staleBefore = Instant.now().minus(staleAfter);
+        for (ReportJob job : reportJobRepository.findByStatusInOrderByIdAsc(List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING))) {
+            if (job.getStatus() == ReportJobStatus.RUNNING && job.getStartedAt() != null
+                    && job.getStartedAt().isAfter(staleBefore)) {
+                continue;
+            }
+            try {
+                submit(job.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("Report job {} was not resumed, queue is full", job.getId());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes completed and failed jobs finished before retention period with their files
+     */
+    @Scheduled(fixedDelayString = "${blog.report.jobs.cleanup-fixed-delay:3600000}")
+    public void deleteExpired() {
+        List<ReportJob> expired = reportJobRepository.findByStatusInAndFinishedAtBefore(
+                List.of(ReportJobStatus.COMPLETED, ReportJobStatus.FAILED), Instant.now().minus(retention));
+        for (ReportJob job : expired) {
+            if (job.getArtifactPath() != null) {
+                deleteFile(Path.of(job.getArtifactPath()));
+            }
+            reportJobRepository.delete(job);
+        }
+        if (!expired.isEmpty()) {
+            log.info("Deleted {} expired report jobs", expired.size());
+        }
+    }
+
+    private void run(Long jobId) {
+        ReportJob job = transactionTemplate.execute(status -> start(jobId));
+        if (job == null) {
+            return;
+        }
+
+        Path artifactPath = reportDirectory.resolve("report-" + jobId + "." + job.getFormat().getExtension());
+        Path partPath = reportDirectory.resolve(artifactPath.getFileName() + ".part");
+        String failure = null;
+        long postCount = 0;
+        long sizeBytes = 0;
+
+        try {
+            PostFilteredFieldsDto filter = objectMapper.readValue(job.getFilter(), PostFilteredFieldsDto.class);
+            Files.createDirectories(reportDirectory);
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partPath), BUFFER_SIZE)) {
+                postCount = postExporter.export(PostSpecifications.matchesFilter(filter), job.getFormat(), false, outputStream);
+            }
+            Files.move(partPath, artifactPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            sizeBytes = Files.size(artifactPath);
+        } catch (JsonProcessingException e) {
+            failure = "Invalid report filter: " + e.getOriginalMessage();
+        } catch (IOException | RuntimeException e) {
+            log.error("Report job {} failed", jobId, e);
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        if (failure != null) {
+            deleteFile(partPath);
+        }
+        finish(jobId, failure, failure == null ? artifactPath : null, postCount, sizeBytes);
+    }
+
+    private ReportJob start(Long jobId) {
+        Instant now = Instant.now();
+        if (reportJobRepository.claim(jobId, now, now.minus(staleAfter)) == 0) {
+            return null;
+        }
+
+        ReportJob job = reportJobRepository.findById(jobId).orElseThrow();
+        try {
+            job.setDataVersion(currentDataVersion(objectMapper.readValue(job.getFilter(), PostFilteredFieldsDto.class)));
+        } catch (JsonProcessingException e) {
+            // job fails when the filter is read again in run
+            return job;
+        }
+        return reportJobRepository.save(job);
+    }
+
+    private void finish(Long jobId, String failure, Path artifactPath, long postCount, long sizeBytes) {
+        transactionTemplate.executeWithoutResult(status -> reportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(failure == null ? ReportJobStatus.COMPLETED : ReportJobStatus.FAILED);
+            job.setFinishedAt(Instant.now());
+            job.setArtifactPath(artifactPath != null ? artifactPath.toString() : null);
+            job.setPostCount(postCount);
+            job.setSizeBytes(sizeBytes);
+            job.setErrorMessage(truncate(failure));
+            reportJobRepository.save(job);
+        }));
+
+        if (failure != null) {
+            log.warn("Report job {} failed: {}", jobId, failure);
+        }
+    }
+
+    private static void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete report file {}", path, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
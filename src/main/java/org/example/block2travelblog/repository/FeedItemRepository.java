@@ -0,0 +1,93 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.FeedItem;
+import org.example.block2travelblog.repository.projection.FeedEntryRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for materialized feeds data access.
+ */
+@Repository
+public interface FeedItemRepository extends JpaRepository<FeedItem, FeedItem.Key> {
+
+    /**
+     * Adds posts to feeds of all followers of their authors with single statement,
+     * posts of celebrities are skipped
+     *
+     * @param postIds ids of created posts
+     * @return count of added feed items
+     */
+    @Modifying
+    @Query(value = "INSERT INTO feed_items (user_id, post_id, created_at) "
+            + "SELECT f.follower_id, p.id, p.created_at FROM posts p "
+            + "JOIN user_follows f ON f.followee_id = p.user_id AND f.followee_celebrity = FALSE "
+            + "WHERE p.id IN (:postIds) "
+            + "AND NOT EXISTS (SELECT 1 FROM feed_items fi WHERE fi.user_id = f.follower_id AND fi.post_id = p.id)",
+            nativeQuery = true)
+    int fanOut(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Adds latest posts of followed user to feed of the follower
+     *
+     * @param followerId follower id
+     * @param followeeId followed user id
+     * @param limit max count of added posts
+     * @return count of added posts
+     */
+    @Modifying
+    @Query(value = "INSERT INTO feed_items (user_id, post_id, created_at) "
+            + "SELECT :followerId, p.id, p.created_at FROM posts p WHERE p.user_id = :followeeId "
+            + "AND NOT EXISTS (SELECT 1 FROM feed_items fi WHERE fi.user_id = :followerId AND fi.post_id = p.id) "
+            + "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit",
+            nativeQuery = true)
+    int backfill(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId, @Param("limit") int limit);
+
+    /**
+     * Removes posts of unfollowed user from feed of the follower
+     *
+     * @param followerId follower id
+     * @param followeeId unfollowed user id
+     * @return count of removed posts
+     */
+    @Modifying
+    @Query(value = "DELETE FROM feed_items WHERE user_id = :followerId "
+            + "AND post_id IN (SELECT p.id FROM posts p WHERE p.user_id = :followeeId)",
+            nativeQuery = true)
+    int removeFollowee(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /**
+     * Finds first page of feed ordered by post creation date and id descending
+     *
+     * @param userId feed owner id
+     * @param limit page size
+     * @return page of feed entries
+     */
+    @Query("select fi.postId as postId, fi.createdAt as createdAt from FeedItem fi where fi.userId = :userId "
+            + "order by fi.createdAt desc, fi.postId desc")
+    List<FeedEntryRow> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Finds page of feed after the cursor ordered by post creation date and id descending
+     *
+     * @param userId feed owner id
+     * @param createdAt creation date of the last returned post
+     * @param postId id of the last returned post
+     * @param limit page size
+     * @return page of feed entries
+     */
+    @Query("select fi.postId as postId, fi.createdAt as createdAt from FeedItem fi where fi.userId = :userId "
+            + "and fi.createdAt <= :createdAt and (fi.createdAt < :createdAt or fi.postId < :postId) "
+            + "order by fi.createdAt desc, fi.postId desc")
+    List<FeedEntryRow> findPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDate createdAt,
+                                     @Param("postId") Long postId, Limit limit);
+
+}
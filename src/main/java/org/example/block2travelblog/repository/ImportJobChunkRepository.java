@@ -0,0 +1,26 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.ImportJobChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for committed import chunks data access.
+ */
+@Repository
+public interface ImportJobChunkRepository extends JpaRepository<ImportJobChunk, ImportJobChunk.Key> {
+
+    /**
+     * Finds indexes of chunks committed by the job
+     *
+     * @param jobId job id
+     * @return chunk indexes
+     */
+    @Query("select c.chunkIndex from ImportJobChunk c where c.jobId = :jobId")
+    List<Integer> findChunkIndexes(@Param("jobId") Long jobId);
+
+}
@@ -0,0 +1,28 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.ImportJobError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for import errors data access.
+ */
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+
+    /**
+     * Finds errors of the job after given record, ordered by record number
+     *
+     * @param jobId job id
+     * @param recordNumber number of the last returned record
+     * @param limit page size
+     * @return page of errors
+     */
+    List<ImportJobError> findByJobIdAndRecordNumberGreaterThanOrderByRecordNumberAsc(Long jobId, long recordNumber, Limit limit);
+
+    long countByJobId(Long jobId);
+
+}
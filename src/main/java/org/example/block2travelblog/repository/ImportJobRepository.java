@@ -0,0 +1,82 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.ImportJob;
+import org.example.block2travelblog.data.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for import jobs data access.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    /**
+     * Finds jobs in given statuses, ordered by id
+     *
+     * @param statuses job statuses
+     * @return jobs
+     */
+    List<ImportJob> findByStatusInOrderByIdAsc(Collection<ImportJobStatus> statuses);
+
+    /**
+     * Finds jobs in given status finished before given time which still have spooled file
+     *
+     * @param status job status
+     * @param finishedAt upper bound of finish time
+     * @return jobs
+     */
+    List<ImportJob> findByStatusAndFinishedAtBeforeAndSpoolPathNotNull(ImportJobStatus status, Instant finishedAt);
+
+    /**
+     * Marks job as running if it is queued or its run has no recent heartbeat
+     *
+     * @param id job id
+     * @param now current time, new heartbeat
+     * @param staleBefore heartbeat of running job older than this is stale
+     * @return 1 if job was claimed, 0 if it is claimed by another run or finished
+     */
+    @Modifying
+    @Query("update ImportJob j set j.status = org.example.block2travelblog.data.ImportJobStatus.RUNNING, j.heartbeatAt = :now "
+            + "where j.id = :id and (j.status = org.example.block2travelblog.data.ImportJobStatus.QUEUED "
+            + "or (j.status = org.example.block2travelblog.data.ImportJobStatus.RUNNING "
+            + "and (j.heartbeatAt is null or j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Returns running job to queue, so it is resumed by next run
+     *
+     * @param id job id
+     * @return count of updated jobs
+     */
+    @Modifying
+    @Query("update ImportJob j set j.status = org.example.block2travelblog.data.ImportJobStatus.QUEUED, j.heartbeatAt = null "
+            + "where j.id = :id and j.status = org.example.block2travelblog.data.ImportJobStatus.RUNNING")
+    int release(@Param("id") Long id);
+
+    /**
+     * Adds results of committed chunk to job counters
+     *
+     * @param id job id
+     * @param imported count of imported posts
+     * @param duplicates count of skipped duplicate posts
+     * @param failed count of failed records
+     * @param now current time, new heartbeat of the job
+     * @return count of updated jobs
+     */
+    @Modifying
+    @Query("update ImportJob j set j.importedCount = j.importedCount + :imported, "
+            + "j.duplicateCount = j.duplicateCount + :duplicates, "
+            + "j.failedCount = j.failedCount + :failed, j.committedChunks = j.committedChunks + 1, "
+            + "j.heartbeatAt = :now where j.id = :id")
+    int addChunkResult(@Param("id") Long id, @Param("imported") long imported,
+                       @Param("duplicates") long duplicates, @Param("failed") long failed, @Param("now") Instant now);
+
+}
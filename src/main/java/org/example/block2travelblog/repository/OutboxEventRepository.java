@@ -0,0 +1,53 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for outbox events data access.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Finds events which are due for publishing, ordered by id
+     *
+     * @param now current time
+     * @param limit batch size
+     * @return batch of due events
+     */
+    List<OutboxEvent> findByNextAttemptAtLessThanEqualOrderByIdAsc(Instant now, Limit limit);
+
+    /**
+     * Claims events which are still due, so they are not published by other relay runs until claim expires
+     *
+     * @param ids ids of events
+     * @param claimToken token of the claiming run
+     * @param now current time
+     * @param claimedUntil time until other runs skip the events
+     * @return count of claimed events
+     */
+    @Modifying
+    @Query("update OutboxEvent e set e.claimToken = :claimToken, e.nextAttemptAt = :claimedUntil "
+            + "where e.id in :ids and e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimToken") String claimToken,
+              @Param("now") Instant now, @Param("claimedUntil") Instant claimedUntil);
+
+    /**
+     * Finds events claimed by the run, ordered by id
+     *
+     * @param claimToken token of the claiming run
+     * @return claimed events
+     */
+    List<OutboxEvent> findByClaimTokenOrderByIdAsc(String claimToken);
+
+}
@@ -1,14 +1,115 @@
 package org.example.block2travelblog.repository;
 
 import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.repository.projection.FeedEntryRow;
+import org.example.block2travelblog.repository.projection.PostCategoryRow;
+import org.example.block2travelblog.repository.projection.PostFingerprintRow;
+import org.example.block2travelblog.repository.projection.PostIndexRow;
+import org.example.block2travelblog.repository.projection.PostTextRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository for post data access.
  */
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>, PostRepositoryCustom {
+
+    /**
+     * Finds filtering fields of posts with id greater than given, ordered by id
+     *
+     * @param afterId last id of previous chunk
+     * @param limit chunk size
+     * @return chunk of post filtering fields
+     */
+    @Query("select p.id as id, p.country as country, p.createdAt as createdAt, p.rating as rating, p.user.id as userId "
+            + "from Post p where p.id > :afterId order by p.id")
+    List<PostIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds fingerprints of imported posts with id greater than given, ordered by id
+     *
+     * @param afterId last id of previous chunk
+     * @param limit chunk size
+     * @return chunk of post fingerprints
+     */
+    @Query("select p.id as id, p.fingerprint as fingerprint from Post p "
+            + "where p.id > :afterId and p.fingerprint is not null order by p.id")
+    List<PostFingerprintRow> findFingerprintRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds which of the given fingerprints belong to stored posts
+     *
+     * @param fingerprints post fingerprints
+     * @return fingerprints of stored posts
+     */
+    @Query("select p.fingerprint from Post p where p.fingerprint in :fingerprints")
+    List<Long> findExistingFingerprints(@Param("fingerprints") Collection<Long> fingerprints);
+
+    /**
+     * Finds text fields of posts with id greater than given, ordered by id
+     *
+     * @param afterId last id of previous chunk
+     * @param limit chunk size
+     * @return chunk of post text fields
+     */
+    @Query("select p.id as id, p.title as title, p.content as content from Post p where p.id > :afterId order by p.id")
+    List<PostTextRow> findTextRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds categories of the given posts in their stored order
+     *
+     * @param postIds post ids
+     * @return pairs of post id and category
+     */
+    @Query("select p.id as postId, c as category from Post p join p.categories c "
+            + "where p.id in :postIds order by p.id, index(c)")
+    List<PostCategoryRow> findCategoryRows(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Finds post with its author and categories in single query
+     *
+     * @param id post id
+     * @return post with loaded author and categories
+     */
+    @EntityGraph(attributePaths = {"user", "categories"})
+    Optional<Post> findWithUserAndCategoriesById(Long id);
+
+    /**
+     * Finds latest posts of the author ordered by creation date and id descending
+     *
+     * @param userId author id
+     * @param limit max count of posts
+     * @return post ids with creation dates
+     */
+    @Query("select p.id as postId, p.createdAt as createdAt from Post p where p.user.id = :userId "
+            + "order by p.createdAt desc, p.id desc")
+    List<FeedEntryRow> findFeedEntriesByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Finds posts of the author before the cursor ordered by creation date and id descending
+     *
+     * @param userId author id
+     * @param createdAt creation date of the last returned post
+     * @param id id of the last returned post
+     * @param limit max count of posts
+     * @return post ids with creation dates
+     */
+    @Query("select p.id as postId, p.createdAt as createdAt from Post p where p.user.id = :userId "
+            + "and p.createdAt <= :createdAt and (p.createdAt < :createdAt or p.id < :id) "
+            + "order by p.createdAt desc, p.id desc")
+    List<FeedEntryRow> findFeedEntriesByUserIdBefore(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDate createdAt,
+                                                     @Param("id") Long id, Limit limit);
 
 }
@@ -0,0 +1,59 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.repository.projection.PostDataVersionRow;
+import org.example.block2travelblog.repository.projection.PostExportRow;
+import org.example.block2travelblog.repository.projection.PostSummaryRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Custom post queries which are not supported by Spring Data query methods.
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Counts posts matching specification grouped by attribute value
+     *
+     * @param specification filtering specification
+     * @param attribute post attribute name, "categories" groups by single category
+     * @return count of posts per attribute value
+     */
+    <T> Map<T, Long> countGroupedBy(Specification<Post> specification, String attribute);
+
+    /**
+     * Aggregates version of posts matching specification, changed by every write of these posts.
+     * Aggregates over all matching posts, so it costs as much as counting them.
+     *
+     * @param specification filtering specification
+     * @return count, sum of versions, max id and time of the last write of matching posts
+     */
+    PostDataVersionRow findDataVersion(Specification<Post> specification);
+
+    /**
+     * Finds summary fields of posts matching specification without reading content
+     *
+     * @param specification filtering specification
+     * @param sort posts order
+     * @param offset count of posts to skip
+     * @param limit max count of posts
+     * @return post summaries in requested order
+     */
+    List<PostSummaryRow> findSummaries(Specification<Post> specification, Sort sort, long offset, int limit);
+
+    /**
+     * Streams export fields of posts matching specification ordered by id through forward-only cursor.
+     * Categories are joined into the same query, rows are read as scalars and never become managed entities,
+     * so memory use does not depend on count of posts. Has to run in transaction to keep the cursor open.
+     *
+     * @param specification filtering specification
+     * @param fetchSize count of rows fetched from database at once
+     * @param consumer receives posts one by one
+     */
+    void streamExportRows(Specification<Post> specification, int fetchSize, Consumer<PostExportRow> consumer);
+
+}
@@ -0,0 +1,178 @@
+package org.example.block2travelblog.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.ListJoin;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.repository.projection.PostDataVersionRow;
+import org.example.block2travelblog.repository.projection.PostExportRow;
+import org.example.block2travelblog.repository.projection.PostSummaryRow;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of custom post queries using Criteria API.
+ */
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<T, Long> countGroupedBy(Specification<Post> specification, String attribute) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+
+        Expression<?> group = "categories".equals(attribute) ? root.join("categories") : root.get(attribute);
+        query.multiselect(group, criteriaBuilder.count(root)).groupBy(group);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Map<T, Long> counts = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            if (tuple.get(0) != null) {
+                counts.put((T) tuple.get(0), tuple.get(1, Long.class));
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public PostDataVersionRow findDataVersion(Specification<Post> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+
+        query.multiselect(
+                criteriaBuilder.count(root),
+                criteriaBuilder.sum(root.<Long>get("version")),
+                criteriaBuilder.max(root.<Long>get("id")),
+                criteriaBuilder.greatest(root.<Instant>get("updatedAt")));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+        Long versionSum = tuple.get(1, Long.class);
+        Long maxId = tuple.get(2, Long.class);
+        return new PostDataVersionRow(
+                tuple.get(0, Long.class),
+                versionSum != null ? versionSum : 0,
+                maxId != null ? maxId : 0,
+                tuple.get(3, Instant.class));
+    }
+
+    @Override
+    public List<PostSummaryRow> findSummaries(Specification<Post> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostSummaryRow> query = criteriaBuilder.createQuery(PostSummaryRow.class);
+        Root<Post> root = query.from(Post.class);
+
+        query.select(criteriaBuilder.construct(PostSummaryRow.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("teaser"),
+                root.get("country"),
+                root.get("createdAt"),
+                root.get("rating"),
+                root.get("user").get("id"),
+                root.get("version")));
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void streamExportRows(Specification<Post> specification, int fetchSize, Consumer<PostExportRow> consumer) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+        ListJoin<Post, String> categories = root.joinList("categories", JoinType.LEFT);
+
+        query.multiselect(
+                root.get("id"),
+                root.get("title"),
+                root.get("content"),
+                root.get("country"),
+                root.get("createdAt"),
+                root.get("rating"),
+                root.get("user").get("id"),
+                categories);
+        query.orderBy(criteriaBuilder.asc(root.get("id")), criteriaBuilder.asc(categories.index()));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        org.hibernate.query.Query<Tuple> hibernateQuery = entityManager.createQuery(query)
+                .unwrap(org.hibernate.query.Query.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+
+        try (ScrollableResults<Tuple> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            Tuple current = null;
+            List<String> currentCategories = new ArrayList<>();
+            while (results.next()) {
+                Tuple tuple = results.get();
+                if (current != null && !current.get(0).equals(tuple.get(0))) {
+                    consumer.accept(toExportRow(current, currentCategories));
+                    currentCategories = new ArrayList<>();
+                }
+                current = tuple;
+                if (tuple.get(7) != null) {
+                    currentCategories.add(tuple.get(7, String.class));
+                }
+            }
+            if (current != null) {
+                consumer.accept(toExportRow(current, currentCategories));
+            }
+        }
+    }
+
+    private static PostExportRow toExportRow(Tuple tuple, List<String> categories) {
+        return new PostExportRow(
+                tuple.get(0, Long.class),
+                tuple.get(1, String.class),
+                tuple.get(2, String.class),
+                tuple.get(3, String.class),
+                categories,
+                tuple.get(4, LocalDate.class),
+                tuple.get(5, Double.class),
+                tuple.get(6, Long.class));
+    }
+}
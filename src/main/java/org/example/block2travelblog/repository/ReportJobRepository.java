@@ -0,0 +1,65 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.ReportJob;
+import org.example.block2travelblog.data.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for report jobs data access.
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    /**
+     * Finds jobs in given statuses, ordered by id
+     *
+     * @param statuses job statuses
+     * @return jobs
+     */
+    List<ReportJob> findByStatusInOrderByIdAsc(Collection<ReportJobStatus> statuses);
+
+    /**
+     * Finds the latest job for the same filter and posts data
+     *
+     * @param filterHash hash of format and filter
+     * @param dataVersion version of posts data
+     * @param statuses job statuses
+     * @return the latest matching job
+     */
+    Optional<ReportJob> findFirstByFilterHashAndDataVersionAndStatusInOrderByIdDesc(String filterHash, String dataVersion,
+                                                                                     Collection<ReportJobStatus> statuses);
+
+    /**
+     * Finds jobs in given statuses finished before given time
+     *
+     * @param statuses job statuses
+     * @param finishedAt upper bound of finish time
+     * @return expired jobs
+     */
+    List<ReportJob> findByStatusInAndFinishedAtBefore(Collection<ReportJobStatus> statuses, Instant finishedAt);
+
+    /**
+     * Marks job as running if it is queued or its run started before it could still be running
+     *
+     * @param id job id
+     * @param now current time, start time of the run
+     * @param staleBefore running job started before this is stale
+     * @return 1 if job was claimed, 0 if it is claimed by another run or finished
+     */
+    @Modifying
+    @Query("update ReportJob j set j.status = org.example.block2travelblog.data.ReportJobStatus.RUNNING, j.startedAt = :now, "
+            + "j.finishedAt = null, j.errorMessage = null "
+            + "where j.id = :id and (j.status = org.example.block2travelblog.data.ReportJobStatus.QUEUED "
+            + "or (j.status = org.example.block2travelblog.data.ReportJobStatus.RUNNING and j.startedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+}
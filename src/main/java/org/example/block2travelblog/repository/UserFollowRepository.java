@@ -0,0 +1,48 @@
+package org.example.block2travelblog.repository;
+
+import org.example.block2travelblog.data.UserFollow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for follow relationships data access.
+ */
+@Repository
+public interface UserFollowRepository extends JpaRepository<UserFollow, UserFollow.Key> {
+
+    /**
+     * Finds followed users whose posts are merged into feed on read
+     *
+     * @param followerId follower id
+     * @return ids of followed celebrities
+     */
+    @Query("select f.followeeId from UserFollow f where f.followerId = :followerId and f.followeeCelebrity = true")
+    List<Long> findCelebrityFolloweeIds(@Param("followerId") Long followerId);
+
+    /**
+     * Marks all follows of the user as follows of a celebrity
+     *
+     * @param followeeId user id
+     * @return count of updated follows
+     */
+    @Modifying
+    @Query("update UserFollow f set f.followeeCelebrity = true where f.followeeId = :followeeId")
+    int markFolloweeCelebrity(@Param("followeeId") Long followeeId);
+
+    /**
+     * Deletes follow, concurrent deletes of the same follow delete it once
+     *
+     * @param followerId follower id
+     * @param followeeId followed user id
+     * @return count of deleted follows
+     */
+    @Modifying
+    @Query("delete from UserFollow f where f.followerId = :followerId and f.followeeId = :followeeId")
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+}
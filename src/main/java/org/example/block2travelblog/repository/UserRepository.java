@@ -1,9 +1,16 @@
 package org.example.block2travelblog.repository;
 
 import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.repository.projection.UserEmailRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +27,86 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Finds which of the given ids belong to existing users
+     *
+     * @param ids user ids
+     * @return ids of existing users
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds emails of users with id greater than given, ordered by id
+     *
+     * @param afterId last id of previous chunk
+     * @param limit chunk size
+     * @return chunk of user ids and emails
+     */
+    @Query("select u.id as id, u.email as email from User u where u.id > :afterId order by u.id")
+    List<UserEmailRow> findEmailsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds user ids greater than given, ordered by id
+     *
+     * @param afterId last id of previous chunk
+     * @param limit chunk size
+     * @return chunk of user ids
+     */
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds emails of users with ids in range, ordered by id
+     *
+     * @param afterId exclusive lower bound of ids
+     * @param upToId inclusive upper bound of ids
+     * @return user ids and emails
+     */
+    @Query("select u.id as id, u.email as email from User u where u.id > :afterId and u.id <= :upToId order by u.id")
+    List<UserEmailRow> findEmailsBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Finds if posts of the user are merged into feeds on read instead of fan-out on write
+     *
+     * @param id user id
+     * @return optional celebrity flag, empty if user not found
+     */
+    @Query("select u.celebrity from User u where u.id = :id")
+    Optional<Boolean> findCelebrityById(@Param("id") Long id);
+
+    /**
+     * Changes follower count of the user
+     *
+     * @param id user id
+     * @param delta count of added or removed followers
+     * @return count of updated users
+     */
+    @Modifying
+    @Query("update User u set u.followerCount = u.followerCount + :delta where u.id = :id")
+    int addFollowers(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * Decrements follower count of all users followed by the user
+     *
+     * @param followerId follower id
+     * @return count of updated users
+     */
+    @Modifying
+    @Query("update User u set u.followerCount = u.followerCount - 1 "
+            + "where u.id in (select f.followeeId from UserFollow f where f.followerId = :followerId)")
+    int removeFollowerFromFollowees(@Param("followerId") Long followerId);
+
+    /**
+     * Marks user as celebrity once follower count reaches the threshold.
+     * Flag is not cleared when followers leave, so feeds do not switch back and forth.
+     *
+     * @param id user id
+     * @param threshold min follower count of celebrity
+     * @return 1 if user has just become celebrity, 0 otherwise
+     */
+    @Modifying
+    @Query("update User u set u.celebrity = true where u.id = :id and u.celebrity = false and u.followerCount >= :threshold")
+    int promoteToCelebrity(@Param("id") Long id, @Param("threshold") long threshold);
+
 }
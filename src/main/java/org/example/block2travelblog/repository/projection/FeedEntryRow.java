@@ -0,0 +1,13 @@
+package org.example.block2travelblog.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of post id and creation date used to page feeds.
+ */
+public interface FeedEntryRow {
+
+    Long getPostId();
+    LocalDate getCreatedAt();
+
+}
@@ -0,0 +1,11 @@
+package org.example.block2travelblog.repository.projection;
+
+/**
+ * Projection of single post category.
+ */
+public interface PostCategoryRow {
+
+    Long getPostId();
+    String getCategory();
+
+}
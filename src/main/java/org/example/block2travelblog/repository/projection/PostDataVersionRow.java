@@ -0,0 +1,26 @@
+package org.example.block2travelblog.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Aggregates over posts which change whenever any of the posts is created, updated or deleted.
+ *
+ * @param count count of posts
+ * @param versionSum sum of post versions
+ * @param maxId max post id, 0 when there are no posts
+ * @param lastUpdatedAt time of the last write, null when there are no posts
+ */
+public record PostDataVersionRow(
+        long count,
+        long versionSum,
+        long maxId,
+        Instant lastUpdatedAt
+) {
+
+    /**
+     * @return version as a string, equal for equal aggregates
+     */
+    public String asString() {
+        return count + "-" + versionSum + "-" + maxId + "-" + (lastUpdatedAt != null ? lastUpdatedAt.toEpochMilli() : 0);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.block2travelblog.repository.projection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Projection of post fields written to reports and exports.
+ *
+ * @param id post id
+ * @param title post title
+ * @param content post content
+ * @param country post country
+ * @param categories post categories in stored order
+ * @param createdAt creation date
+ * @param rating post rating
+ * @param userId author id
+ */
+public record PostExportRow(
+        Long id,
+        String title,
+        String content,
+        String country,
+        List<String> categories,
+        LocalDate createdAt,
+        Double rating,
+        Long userId
+) {
+}
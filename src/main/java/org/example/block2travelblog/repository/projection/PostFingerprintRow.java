@@ -0,0 +1,11 @@
+package org.example.block2travelblog.repository.projection;
+
+/**
+ * Projection of post fingerprint used to skip already imported posts.
+ */
+public interface PostFingerprintRow {
+
+    Long getId();
+    Long getFingerprint();
+
+}
@@ -0,0 +1,16 @@
+package org.example.block2travelblog.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of post fields used for filtering.
+ */
+public interface PostIndexRow {
+
+    Long getId();
+    String getCountry();
+    LocalDate getCreatedAt();
+    Double getRating();
+    Long getUserId();
+
+}
@@ -0,0 +1,27 @@
+package org.example.block2travelblog.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of post fields shown in summary list, without content.
+ *
+ * @param id post id
+ * @param title post title
+ * @param teaser beginning of post content
+ * @param country post country
+ * @param createdAt creation date
+ * @param rating post rating
+ * @param userId author id
+ * @param version post version
+ */
+public record PostSummaryRow(
+        Long id,
+        String title,
+        String teaser,
+        String country,
+        LocalDate createdAt,
+        Double rating,
+        Long userId,
+        Long version
+) {
+}
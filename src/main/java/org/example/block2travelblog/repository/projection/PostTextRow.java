@@ -0,0 +1,12 @@
+package org.example.block2travelblog.repository.projection;
+
+/**
+ * Projection of post fields used for text search.
+ */
+public interface PostTextRow {
+
+    Long getId();
+    String getTitle();
+    String getContent();
+
+}
@@ -0,0 +1,11 @@
+package org.example.block2travelblog.repository.projection;
+
+/**
+ * Projection of user id and email used to resolve notification recipients.
+ */
+public interface UserEmailRow {
+
+    Long getId();
+    String getEmail();
+
+}
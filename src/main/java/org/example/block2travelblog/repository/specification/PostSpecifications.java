@@ -1,20 +1,53 @@
 package org.example.block2travelblog.repository.specification;
 
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.dto.PostFilter;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 
 public class PostSpecifications {
+
+    /**
+     * Matches posts by all fields of the filter, fields which are not set are ignored.
+     */
+    public static Specification<Post> matchesFilter(PostFilter filter) {
+        return Specification
+                .where(hasCountry(filter.getCountry()))
+                .and(hasCategory(filter.getCategory()))
+                .and(isCreatedAfter(filter.getCreatedAfter()))
+                .and(hasMinRating(filter.getMinRating()))
+                .and(hasUserId(filter.getUserId()));
+    }
+
     public static Specification<Post> hasCountry(String country) {
         return (root, query, criteriaBuilder) ->
                 country == null ? null : criteriaBuilder.equal(root.get("country"), country);
     }
 
+    /**
+     * Matches posts having the category with EXISTS semi-join,
+     * resolved by idx_post_categories_category_post instead of scanning categories of every post.
+     */
     public static Specification<Post> hasCategory(String category) {
-        return (root, query, criteriaBuilder) ->
-                category == null ? null : criteriaBuilder.isMember(category, root.get("categories"));
+        return (root, query, criteriaBuilder) -> {
+            if (category == null) {
+                return null;
+            }
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<Post> post = subquery.correlate(root);
+            Join<Post, String> categories = post.join("categories");
+            subquery.select(criteriaBuilder.literal(1))
+                    .where(criteriaBuilder.equal(categories, category));
+            return criteriaBuilder.exists(subquery);
+        };
     }
 
     public static Specification<Post> isCreatedAfter(LocalDate createdAfter) {
@@ -33,4 +66,42 @@ public class PostSpecifications {
                 userId == null ? null : criteriaBuilder.equal(root.get("user").get("id"), userId);
     }
 
+    /**
+     * Matches posts containing all words of the text in title or content.
+     * Fallback for text search when in-memory text index is disabled or not built yet, requires full scan.
+     * Unlike the index, it does not rank matches: pages keep the order of the query, newest posts first.
+     * Like the index, it matches no posts when text has no terms.
+     */
+    public static Specification<Post> containsText(List<String> terms) {
+        return (root, query, criteriaBuilder) -> {
+            if (terms == null || terms.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            Predicate[] predicates = terms.stream()
+                    .map(term -> "%" + term + "%")
+                    .map(pattern -> criteriaBuilder.or(
+                            criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), pattern),
+                            criteriaBuilder.like(criteriaBuilder.lower(root.get("content")), pattern)))
+                    .toArray(Predicate[]::new);
+            return criteriaBuilder.and(predicates);
+        };
+    }
+
+    public static Specification<Post> hasIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Seek predicate for keyset pagination ordered by createdAt DESC, id DESC.
+     * Upper bound on createdAt keeps the predicate usable for idx_post_created_at_id range scan.
+     */
+    public static Specification<Post> isBefore(LocalDate createdAt, Long id) {
+        return (root, query, criteriaBuilder) ->
+                createdAt == null || id == null ? null : criteriaBuilder.and(
+                        criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                        criteriaBuilder.or(
+                                criteriaBuilder.lessThan(root.get("createdAt"), createdAt),
+                                criteriaBuilder.lessThan(root.get("id"), id)));
+    }
+
 }
@@ -0,0 +1,15 @@
+package org.example.block2travelblog.service;
+
+import org.example.block2travelblog.dto.FilteredPostResponse;
+
+/**
+ * Service Interface for follows and home feeds operations.
+ */
+public interface FeedService {
+
+    void follow(Long followerId, Long followeeId);
+
+    void unfollow(Long followerId, Long followeeId);
+
+    FilteredPostResponse getFeed(Long userId, String cursor, int size);
+}
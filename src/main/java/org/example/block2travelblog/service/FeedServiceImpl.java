@@ -0,0 +1,181 @@
+package org.example.block2travelblog.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.data.UserFollow;
+import org.example.block2travelblog.dto.FilteredPostResponse;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.dto.PostView;
+import org.example.block2travelblog.repository.FeedItemRepository;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserFollowRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.repository.projection.FeedEntryRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service implementation for follows and home feeds operations.
+ * Feeds are materialized on write for regular authors and merged with posts
+ * of followed celebrities on read, so every feed page is read with index range scans
+ * limited by page size: one for materialized feed and one per followed celebrity.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedServiceImpl implements FeedService {
+
+    private static final Comparator<FeedEntryRow> FEED_ORDER = Comparator
+            .comparing(FeedEntryRow::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(FeedEntryRow::getPostId)
+            .reversed();
+
+    private final UserRepository userRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final FeedItemRepository feedItemRepository;
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${blog.feed.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    @Value("${blog.feed.backfill-size:100}")
+    private int backfillSize;
+
+    @Value("${blog.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Follows user and adds latest posts of followed user to feed of the follower.
+     * Following already followed user does nothing, also when the same follow is saved concurrently:
+     * the follow is inserted first, so transaction losing the race fails before changing counters and is rolled back.
+     *
+     * @param followerId follower id
+     * @param followeeId followed user id
+     * @throws IllegalArgumentException if user follows himself
+     * @throws EntityNotFoundException if any of users not found
+     */
+    @Override
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("User can not follow himself");
+        }
+        UserFollow.Key key = new UserFollow.Key(followerId, followeeId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertFollow(followerId, followeeId));
+        } catch (DataIntegrityViolationException e) {
+            if (!userFollowRepository.existsById(key)) {
+                throw e;
+            }
+        }
+    }
+
+    private void insertFollow(Long followerId, Long followeeId) {
+        if (!userRepository.existsById(followerId)) {
+            throw new EntityNotFoundException("User not found");
+        }
+        boolean celebrity = userRepository.findCelebrityById(followeeId)
+                .orElseThrow(() -> new EntityNotFoundException("Followed user not found"));
+
+        if (userFollowRepository.existsById(new UserFollow.Key(followerId, followeeId))) {
+            return;
+        }
+
+        userFollowRepository.saveAndFlush(new UserFollow(followerId, followeeId, Instant.now(), celebrity));
+        userRepository.addFollowers(followeeId, 1);
+
+        if (!celebrity && userRepository.promoteToCelebrity(followeeId, celebrityThreshold) == 1) {
+            userFollowRepository.markFolloweeCelebrity(followeeId);
+            celebrity = true;
+        }
+        if (!celebrity) {
+            feedItemRepository.backfill(followerId, followeeId, backfillSize);
+        }
+    }
+
+    /**
+     * Unfollows user and removes posts of unfollowed user from feed of the follower.
+     * Unfollowing not followed user does nothing.
+     *
+     * @param followerId follower id
+     * @param followeeId unfollowed user id
+     */
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        if (userFollowRepository.deleteFollow(followerId, followeeId) == 0) {
+            return;
+        }
+
+        userRepository.addFollowers(followeeId, -1);
+        feedItemRepository.removeFollowee(followerId, followeeId);
+    }
+
+    /**
+     * Retrieves page of posts of followed users, newest first
+     *
+     * @param userId feed owner id
+     * @param cursor cursor returned with previous page, empty or null for first page
+     * @param size page size
+     * @return page of posts summaries with cursor of the next page
+     * @throws EntityNotFoundException if user not found
+     * @throws IllegalArgumentException if page size or cursor is invalid
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FilteredPostResponse getFeed(Long userId, String cursor, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found");
+        }
+
+        PostCursor after = cursor == null || cursor.isEmpty() ? null : PostCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+
+        List<FeedEntryRow> entries = new ArrayList<>(after == null
+                ? feedItemRepository.findFirstPage(userId, limit)
+                : feedItemRepository.findPageAfter(userId, after.createdAt(), after.id(), limit));
+
+        // each celebrity is read separately, so no author contributes more rows than a page
+        for (Long celebrityId : userFollowRepository.findCelebrityFolloweeIds(userId)) {
+            entries.addAll(after == null
+                    ? postRepository.findFeedEntriesByUserId(celebrityId, limit)
+                    : postRepository.findFeedEntriesByUserIdBefore(celebrityId, after.createdAt(), after.id(), limit));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<FeedEntryRow> page = entries.stream()
+                .sorted(FEED_ORDER)
+                .filter(entry -> seen.add(entry.getPostId()))
+                .limit(size + 1L)
+                .toList();
+
+        boolean hasNextPage = page.size() > size;
+        if (hasNextPage) {
+            page = page.subList(0, size);
+        }
+
+        List<PostDto> posts = postService.getPostsInOrder(page.stream().map(FeedEntryRow::getPostId).toList(), PostView.SUMMARY);
+
+        String nextCursor = null;
+        if (hasNextPage) {
+            FeedEntryRow last = page.get(page.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new FilteredPostResponse(posts, null, null, nextCursor);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.block2travelblog.service;
+
+import org.example.block2travelblog.dto.ImportJobDto;
+import org.example.block2travelblog.dto.UploadErrorDto;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * Service Interface for posts import jobs operations.
+ */
+public interface ImportJobService {
+
+    ImportJobDto submit(MultipartFile file);
+
+    ImportJobDto getJob(Long id);
+
+    List<UploadErrorDto> getErrors(Long id, long afterRecord, int size);
+
+    ImportJobDto resume(Long id);
+}
@@ -0,0 +1,198 @@
+package org.example.block2travelblog.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.data.ImportJob;
+import org.example.block2travelblog.data.ImportJobStatus;
+import org.example.block2travelblog.dto.ImportJobDto;
+import org.example.block2travelblog.dto.UploadErrorDto;
+import org.example.block2travelblog.repository.ImportJobErrorRepository;
+import org.example.block2travelblog.repository.ImportJobRepository;
+import org.example.block2travelblog.upload.ImportJobRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Service implementation for posts import jobs operations.
+ * Uploaded file is copied to spool directory and imported in background by {@link ImportJobRunner}.
+ */
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final ImportJobRunner importJobRunner;
+    private final Path spoolDirectory;
+    private final int chunkSize;
+    private final int maxErrorsPageSize;
+
+    public ImportJobServiceImpl(ImportJobRepository importJobRepository,
+                                ImportJobErrorRepository importJobErrorRepository,
+                                ImportJobRunner importJobRunner,
+                                @Value("${blog.import.spool-dir:${java.io.tmpdir}/blog-imports}") Path spoolDirectory,
+                                @Value("${blog.upload.chunk-size:500}") int chunkSize,
+                                @Value("${blog.import.max-errors-page-size:1000}") int maxErrorsPageSize) {
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.importJobRunner = importJobRunner;
+        this.spoolDirectory = spoolDirectory;
+        this.chunkSize = chunkSize;
+        this.maxErrorsPageSize = maxErrorsPageSize;
+    }
+
+    /**
+     * Spools uploaded file and queues its import
+     *
+     * @param file with posts data
+     * @return queued job
+     * @throws IllegalArgumentException if file is empty
+     * @throws RejectedExecutionException if queue of import jobs is full
+     */
+    @Override
+    public ImportJobDto submit(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        ImportJob job = new ImportJob();
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setFileName(file.getOriginalFilename());
+        job.setChunkSize(chunkSize);
+        job.setCreatedAt(Instant.now());
+        job = importJobRepository.save(job);
+
+        Path spoolPath = spoolDirectory.resolve("import-" + job.getId() + ".upload");
+        try {
+            Files.createDirectories(spoolDirectory);
+            file.transferTo(spoolPath);
+        } catch (IOException e) {
+            importJobRepository.delete(job);
+            throw new RuntimeException("Error spooling uploaded file", e);
+        }
+
+        job.setSpoolPath(spoolPath.toString());
+        job = importJobRepository.save(job);
+        try {
+            importJobRunner.submit(job.getId());
+        } catch (RejectedExecutionException e) {
+            importJobRepository.delete(job);
+            deleteSpoolFile(spoolPath);
+            throw e;
+        }
+
+        return mapImportJobToImportJobDto(job);
+    }
+
+    /**
+     * Retrieves import job progress
+     *
+     * @param id job id
+     * @return job state with counters and throughput
+     * @throws EntityNotFoundException if job not found
+     */
+    @Override
+    public ImportJobDto getJob(Long id) {
+        return mapImportJobToImportJobDto(findJob(id));
+    }
+
+    /**
+     * Retrieves records of the job which were not imported
+     *
+     * @param id job id
+     * @param afterRecord number of the last returned record, 0 for first page
+     * @param size page size
+     * @return errors ordered by record number
+     * @throws EntityNotFoundException if job not found
+     * @throws IllegalArgumentException if page size is invalid
+     */
+    @Override
+    public List<UploadErrorDto> getErrors(Long id, long afterRecord, int size) {
+        if (size < 1 || size > maxErrorsPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxErrorsPageSize);
+        }
+        findJob(id);
+
+        return importJobErrorRepository.findByJobIdAndRecordNumberGreaterThanOrderByRecordNumberAsc(id, afterRecord, Limit.of(size))
+                .stream()
+                .map(error -> new UploadErrorDto(error.getRecordNumber(), error.getMessage()))
+                .toList();
+    }
+
+    /**
+     * Queues failed job again, chunks committed before the failure are skipped
+     *
+     * @param id job id
+     * @return queued job
+     * @throws EntityNotFoundException if job not found
+     * @throws IllegalArgumentException if job has not failed or its spooled file was deleted
+     * @throws RejectedExecutionException if queue of import jobs is full
+     */
+    @Override
+    public ImportJobDto resume(Long id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus() != ImportJobStatus.FAILED) {
+            throw new IllegalArgumentException("Only failed import job can be resumed, job status: " + job.getStatus());
+        }
+        if (job.getSpoolPath() == null) {
+            throw new IllegalArgumentException("Uploaded file of import job was deleted after retention period, upload it again");
+        }
+
+        job.setStatus(ImportJobStatus.QUEUED);
+        job = importJobRepository.save(job);
+        try {
+            importJobRunner.submit(job.getId());
+        } catch (RejectedExecutionException e) {
+            job.setStatus(ImportJobStatus.FAILED);
+            importJobRepository.save(job);
+            throw e;
+        }
+
+        return mapImportJobToImportJobDto(job);
+    }
+
+    private static void deleteSpoolFile(Path spoolPath) {
+        try {
+            Files.deleteIfExists(spoolPath);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled file {}", spoolPath, e);
+        }
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Import job not found for id: " + id));
+    }
+
+    private ImportJobDto mapImportJobToImportJobDto(ImportJob job) {
+        ImportJobDto importJobDto = new ImportJobDto();
+        importJobDto.setId(job.getId());
+        importJobDto.setStatus(job.getStatus());
+        importJobDto.setFileName(job.getFileName());
+        importJobDto.setCreatedAt(job.getCreatedAt());
+        importJobDto.setStartedAt(job.getStartedAt());
+        importJobDto.setFinishedAt(job.getFinishedAt());
+        importJobDto.setImportedCount(job.getImportedCount());
+        importJobDto.setDuplicateCount(job.getDuplicateCount());
+        importJobDto.setFailedCount(job.getFailedCount());
+        importJobDto.setCommittedChunks(job.getCommittedChunks());
+        importJobDto.setErrorMessage(job.getErrorMessage());
+
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            long millis = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1);
+            long processed = job.getImportedCount() + job.getDuplicateCount() + job.getFailedCount() - job.getProcessedAtStart();
+            importJobDto.setRecordsPerSecond(processed * 1000.0 / millis);
+        }
+        return importJobDto;
+    }
+}
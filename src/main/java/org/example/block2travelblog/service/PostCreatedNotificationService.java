@@ -1,12 +1,19 @@
 package org.example.block2travelblog.service;
 
-import org.example.block2travelblog.messaging.EmailMessage;
+import org.example.block2travelblog.messaging.PostCreatedNotification;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service Interface for sending notification about new post.
  */
 @Service
 public interface PostCreatedNotificationService {
-    void sendPostCreatedNotification(EmailMessage emailMessage);
+
+    List<Long> resolveRecipientChunks();
+
+    CompletableFuture<Void> sendPostCreatedNotification(PostCreatedNotification notification, String messageIdPrefix,
+                                                        List<Long> recipientChunks);
 }
@@ -2,27 +2,96 @@ package org.example.block2travelblog.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.block2travelblog.messaging.EmailMessage;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.example.block2travelblog.messaging.NotificationPublisher;
+import org.example.block2travelblog.messaging.PostCreatedNotification;
+import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.repository.projection.UserEmailRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service implementation for sending post creation notifications.
- * Publishes {@link EmailMessage} events to RabbitMQ exchange.
+ * Publishes {@link EmailMessage} events to RabbitMQ exchange, one message per chunk of recipients,
+ * through asynchronous {@link NotificationPublisher}.
  */
 @Service
 @RequiredArgsConstructor
 public class PostCreatedNotificationServiceImpl implements PostCreatedNotificationService {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final NotificationPublisher notificationPublisher;
+    private final UserRepository userRepository;
+
+    @Value("${blog.notification.recipients-chunk-size:1000}")
+    private int recipientsChunkSize;
 
     /**
-     * Sends a notification about a newly created post.
-     * Publishes the message to the "travel-blog" exchange with routing key "post.created".
+     * Splits current users into chunks of recipients in id order.
+     * Reads only user ids, so memory depends on count of chunks, not on count of users.
      *
-     * @param emailMessage the email message to send
+     * @return last user id of every chunk
      */
     @Override
-    public void sendPostCreatedNotification(EmailMessage emailMessage){
-        rabbitTemplate.convertAndSend("travel-blog", "post.created", emailMessage);
+    public List<Long> resolveRecipientChunks() {
+        List<Long> chunks = new ArrayList<>();
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, Limit.of(recipientsChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            chunks.add(afterId);
+        } while (ids.size() == recipientsChunkSize);
+        return chunks;
+    }
+
+    /**
+     * Sends a notification about a newly created post to users of resolved chunks,
+     * one message per chunk with message id ending with chunk number.
+     * Chunk holds users with ids after the previous chunk up to its last id, so retried message
+     * has the same recipients except deleted users, and users created later are not notified.
+     * Publishes messages to the "travel-blog" exchange with routing key "post.created".
+     *
+     * @param notification created post data
+     * @param messageIdPrefix prefix of message ids, lets consumers skip redelivered messages
+     * @param recipientChunks last user id of every chunk, see {@link #resolveRecipientChunks()}
+     * @return future completed when broker confirmed all messages, failed when any message was rejected
+     */
+    @Override
+    public CompletableFuture<Void> sendPostCreatedNotification(PostCreatedNotification notification, String messageIdPrefix,
+                                                               List<Long> recipientChunks) {
+        String subject = "Новий допис від " + notification.getAuthorName();
+        String content = "Користувач " + notification.getAuthorName() + " публікує новий допис: " + notification.getTitle();
+
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        long afterId = 0L;
+        for (int chunk = 0; chunk < recipientChunks.size(); chunk++) {
+            long upToId = recipientChunks.get(chunk);
+            List<UserEmailRow> recipients = userRepository.findEmailsBetween(afterId, upToId);
+            afterId = upToId;
+            if (recipients.isEmpty()) {
+                continue;
+            }
+
+            EmailMessage emailMessage = EmailMessage.builder()
+                    .subject(subject)
+                    .content(content)
+                    .recipientsEmails(recipients.stream().map(UserEmailRow::getEmail).toList())
+                    .build();
+            CompletableFuture<Void> confirm = notificationPublisher.publish(emailMessage, messageIdPrefix + "-" + chunk);
+            confirms.add(confirm);
+            if (confirm.isCompletedExceptionally()) {
+                // rejected by publisher, whole notification is retried later
+                break;
+            }
+        }
+
+        return CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new));
     }
 }
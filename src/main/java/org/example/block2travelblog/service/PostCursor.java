@@ -0,0 +1,50 @@
+package org.example.block2travelblog.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last returned post in keyset pagination.
+ * Encoded for clients as an opaque url-safe string.
+ *
+ * @param createdAt creation date of the last returned post
+ * @param id id of the last returned post
+ */
+public record PostCursor(LocalDate createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes cursor into opaque string
+     *
+     * @return url-safe base64 string
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes cursor received from client
+     *
+     * @param cursor opaque cursor string
+     * @return decoded cursor
+     * @throws IllegalArgumentException if cursor is malformed
+     */
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new PostCursor(
+                    LocalDate.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
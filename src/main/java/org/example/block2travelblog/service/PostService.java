@@ -2,8 +2,12 @@ package org.example.block2travelblog.service;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.example.block2travelblog.dto.*;
+import org.example.block2travelblog.report.PostReportFormat;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,7 +25,15 @@ public interface PostService {
 
     FilteredPostResponse search(PostQueryDto postQueryDto);
 
+    List<PostDto> getPostsInOrder(List<Long> ids, PostView view);
+
+    PostFacetsResponse getFacets(PostFilteredFieldsDto postFilteredFieldsDto);
+
     void generateReport(HttpServletResponse response, PostFilteredFieldsDto postFilteredFieldsDto);
 
+    StreamingResponseBody exportPosts(PostFilteredFieldsDto postFilteredFieldsDto, PostReportFormat format, boolean gzip);
+
     UploadedPostsRestResponse uploadFromFile(MultipartFile file);
+
+    UploadedPostsRestResponse uploadFromStream(InputStream inputStream, String contentType);
 }
@@ -1,36 +1,61 @@
 package org.example.block2travelblog.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.example.block2travelblog.cache.PostDetailsCache;
+import org.example.block2travelblog.cache.PostSearchCache;
+import org.example.block2travelblog.cache.PostSearchKey;
+import org.example.block2travelblog.data.OutboxEvent;
 import org.example.block2travelblog.data.Post;
 import org.example.block2travelblog.data.User;
 import org.example.block2travelblog.dto.*;
 import org.example.block2travelblog.exception.CreationException;
-import org.example.block2travelblog.messaging.EmailMessage;
+import org.example.block2travelblog.index.PostBitmapIndex;
+import org.example.block2travelblog.index.PostIndexPage;
+import org.example.block2travelblog.index.PostTextIndex;
+import org.example.block2travelblog.messaging.PostCreatedNotification;
+import org.example.block2travelblog.report.PostExporter;
+import org.example.block2travelblog.report.PostReportFormat;
+import org.example.block2travelblog.report.PostXlsxReportWriter;
+import org.example.block2travelblog.outbox.OutboxRelay;
+import org.example.block2travelblog.repository.OutboxEventRepository;
 import org.example.block2travelblog.repository.PostRepository;
 import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.repository.projection.PostSummaryRow;
 import org.example.block2travelblog.repository.specification.PostSpecifications;
+import org.example.block2travelblog.upload.PostImporter;
+import org.example.block2travelblog.upload.PostRecordReaders;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipException;
 
 /**
  * Service implementation for posts operations.
@@ -38,18 +63,29 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
+
+    private static final Sort SEARCH_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final ObjectMapper objectMapper;
-    private final PostCreatedNotificationService postCreatedNotificationService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final PostSearchCache postSearchCache;
+    private final PostDetailsCache postDetailsCache;
+    private final ObjectProvider<PostBitmapIndex> postBitmapIndex;
+    private final ObjectProvider<PostTextIndex> postTextIndex;
+    private final PostImporter postImporter;
+    private final PostExporter postExporter;
 
     /**
-     * Creates a new post
+     * Creates a new post.
+     * Notification about the post is written to outbox in the same transaction and published by outbox relay.
      *
      * @param savePostDto post data
      * @return created post dto
      * @throws EntityNotFoundException if user not found
      */
+    @Transactional
     public PostDto savePost(SavePostDto savePostDto) {
         User user = userRepository.findById(savePostDto.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found for id: " + savePostDto.getUserId()));
@@ -67,31 +103,26 @@ public class PostServiceImpl implements PostService {
             throw new CreationException("Failed to create post");
         }
 
-        List<String> allRecipients = userRepository.findAll()
-                .stream()
-                .map(User::getEmail)
-                .toList();
-
-        EmailMessage emailMessage = EmailMessage.builder()
-                .subject("Новий допис від " + user.getName())
-                .content("Користувач " + user.getName() + " публікує новий допис: " + createdPost.getTitle())
-                .recipientsEmails(allRecipients)
-                .build();
-
-        postCreatedNotificationService.sendPostCreatedNotification(emailMessage);
+        outboxEventRepository.save(OutboxRelay.newEvent(OutboxEvent.POST_CREATED,
+                new PostCreatedNotification(createdPost.getId(), user.getName(), createdPost.getTitle()),
+                objectMapper));
 
         return mapPostToPostDto(createdPost);
     }
 
     /**
-     * Retrieves post data including user data
+     * Retrieves post data including user data from cache or database
      *
      * @param id post id
      * @return post data
      * @throws EntityNotFoundException if post not found by id
      */
     public ExtendedPostDto getPostById(Long id) {
-        Post post = postRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Post not found for id: " + id));
+        return postDetailsCache.get(id, this::loadPostById);
+    }
+
+    private ExtendedPostDto loadPostById(Long id) {
+        Post post = postRepository.findWithUserAndCategoriesById(id).orElseThrow(() -> new EntityNotFoundException("Post not found for id: " + id));
 
         UserDto userDto = new UserDto();
         userDto.setId(post.getUser().getId());
@@ -100,7 +131,7 @@ public class PostServiceImpl implements PostService {
 
         ExtendedPostDto extendedPostDto = new ExtendedPostDto();
         BeanUtils.copyProperties(post, extendedPostDto);
-        extendedPostDto.setCategories(post.getCategories());
+        extendedPostDto.setCategories(List.copyOf(post.getCategories()));
         extendedPostDto.setAuthor(userDto);
 
         return extendedPostDto;
@@ -142,50 +173,117 @@ public class PostServiceImpl implements PostService {
     }
 
     /**
-     * Retrieves page of filtered posts
+     * Retrieves page of filtered posts from cache, in-memory index or database.
+     * Uses keyset pagination without total count when cursor is present in query.
+     * Orders posts by relevance when text is present in query and text index is ready,
+     * by creation date when text is searched in database.
      *
-     * @param postQueryDto filtering fields, page size, page number
+     * @param postQueryDto filtering fields, page size, page number or cursor
      * @return FilteredPostResponse with list of posts, total number of pages and total count of elements
      */
     public FilteredPostResponse search(PostQueryDto postQueryDto) {
+        return postSearchCache.get(PostSearchKey.of(postQueryDto), () -> loadPage(postQueryDto));
+    }
+
+    /**
+     * Retrieves posts by ids keeping order of ids, missing posts are skipped
+     *
+     * @param ids post ids
+     * @param view fields of posts to load
+     * @return posts in order of ids
+     */
+    @Override
+    public List<PostDto> getPostsInOrder(List<Long> ids, PostView view) {
+        return ids.isEmpty() ? List.of() : findPostDtosInOrder(ids, view);
+    }
+
+    private FilteredPostResponse loadPage(PostQueryDto postQueryDto) {
+        PostBitmapIndex index = postBitmapIndex.getIfAvailable();
+        boolean useIndex = index != null && index.isReady();
+        boolean textSearch = StringUtils.hasText(postQueryDto.getText());
+
+        if (postQueryDto.getCursor() != null) {
+            if (textSearch) {
+                throw new IllegalArgumentException("Cursor pagination is not supported for text search");
+            }
+            return useIndex ? searchIndexAfterCursor(index, postQueryDto) : searchAfterCursor(postQueryDto);
+        }
+
         Pageable pageable = PageRequest.of(
                 postQueryDto.getFrom(),
                 postQueryDto.getSize(),
-                Sort.by(Sort.Direction.DESC, "createdAt"));
-
-        Specification<Post> specification = buildSpecification(postQueryDto);
-
-        Page<PostDto> dtoPage = postRepository.findAll(specification, pageable)
-                .map(this::mapPostToPostDto);
+                SEARCH_SORT);
+
+        Page<PostDto> dtoPage;
+        if (textSearch) {
+            dtoPage = searchText(index, postQueryDto, pageable);
+        } else if (useIndex) {
+            PostIndexPage indexPage = index.search(postQueryDto, null, pageable.getOffset(), pageable.getPageSize(), true);
+            List<PostDto> posts = findPostDtosInOrder(indexPage.ids(), postQueryDto.getView());
+            dtoPage = new PageImpl<>(posts, pageable, indexPage.totalElements());
+        } else {
+            dtoPage = findPostDtoPage(buildSpecification(postQueryDto), pageable, postQueryDto.getView());
+        }
 
         return new FilteredPostResponse(
                 dtoPage.getContent(),
                 dtoPage.getTotalPages(),
-                dtoPage.getTotalElements()
+                dtoPage.getTotalElements(),
+                null
         );
     }
 
     /**
-     * Generates file .xlsx with filtered posts
+     * Counts posts per country, category, rating bucket and month.
+     * Counts are taken from in-memory index, or grouped in database when index is not available.
+     *
+     * @param postFilteredFieldsDto fields for filtering
+     * @return facet counts, each restricted by all filters except its own
+     */
+    public PostFacetsResponse getFacets(PostFilteredFieldsDto postFilteredFieldsDto) {
+        PostBitmapIndex index = postBitmapIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return index.facets(postFilteredFieldsDto);
+        }
+
+        PostFilteredFieldsDto withoutCountry = copyFilter(postFilteredFieldsDto);
+        withoutCountry.setCountry(null);
+        PostFilteredFieldsDto withoutCategory = copyFilter(postFilteredFieldsDto);
+        withoutCategory.setCategory(null);
+        PostFilteredFieldsDto withoutRating = copyFilter(postFilteredFieldsDto);
+        withoutRating.setMinRating(null);
+        PostFilteredFieldsDto withoutCreatedAfter = copyFilter(postFilteredFieldsDto);
+        withoutCreatedAfter.setCreatedAfter(null);
+
+        Map<String, Long> countries = new TreeMap<>(
+                postRepository.<String>countGroupedBy(buildSpecification(withoutCountry), "country"));
+        Map<String, Long> categories = new TreeMap<>(
+                postRepository.<String>countGroupedBy(buildSpecification(withoutCategory), "categories"));
+
+        Map<String, Long> ratings = new TreeMap<>();
+        postRepository.<Double>countGroupedBy(buildSpecification(withoutRating), "rating")
+                .forEach((rating, count) -> ratings.merge(PostFacetsResponse.ratingBucket(rating), count, Long::sum));
+
+        Map<String, Long> months = new TreeMap<>();
+        postRepository.<LocalDate>countGroupedBy(buildSpecification(withoutCreatedAfter), "createdAt")
+                .forEach((date, count) -> months.merge(PostFacetsResponse.monthBucket(date), count, Long::sum));
+
+        return new PostFacetsResponse(countries, categories, ratings, months);
+    }
+
+    /**
+     * Generates file .xlsx with filtered posts, posts are read through database cursor
+     * and streamed through a bounded window of rows
      *
      * @param response
      * @param postFilteredFieldsDto fields for filtering
      */
     public void generateReport(HttpServletResponse response, PostFilteredFieldsDto postFilteredFieldsDto) {
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setContentType(PostXlsxReportWriter.CONTENT_TYPE);
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=posts.xlsx");
 
-        List<Post> posts = postRepository.findAll(buildSpecification(postFilteredFieldsDto));
-
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Posts");
-
-            createHeaderRow(sheet);
-            fillDataRows(sheet, posts);
-
-            autoSizeColumns(sheet);
-
-            workbook.write(response.getOutputStream());
+        try {
+            postExporter.export(buildSpecification(postFilteredFieldsDto), PostReportFormat.XLSX, false, response.getOutputStream());
             response.flushBuffer();
         } catch (IOException e) {
             throw new RuntimeException("Error generating XLSX report", e);
@@ -193,140 +291,227 @@ public class PostServiceImpl implements PostService {
     }
 
     /**
-     * Uploads post data from .json file
+     * Exports filtered posts as CSV or NDJSON, posts are written while they are read from database cursor
+     *
+     * @param postFilteredFieldsDto fields for filtering
+     * @param format CSV or NDJSON
+     * @param gzip if output is gzip-compressed
+     * @return body written to response after the handler returns
+     */
+    public StreamingResponseBody exportPosts(PostFilteredFieldsDto postFilteredFieldsDto, PostReportFormat format, boolean gzip) {
+        Specification<Post> specification = buildSpecification(postFilteredFieldsDto);
+        return outputStream -> postExporter.export(specification, format, gzip, outputStream);
+    }
+
+    /**
+     * Uploads post data from .json or .ndjson file, optionally gzip-compressed,
+     * streaming its records, posts are saved in chunks so whole file is never held in memory
      *
      * @param file with posts data
      * @return number of successful and failed saved posts
+     * @throws IllegalArgumentException if file is not valid JSON array or gzip stream
      */
     public UploadedPostsRestResponse uploadFromFile(MultipartFile file) {
-        int successfulCount = 0;
-        int failedCount = 0;
-
-        if (!isValidJsonFile(file)) {
-            throw new RuntimeException("Invalid JSON file format");
+        try {
+            return uploadFromStream(file.getInputStream(), file.getOriginalFilename(), file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Error uploading file", e);
         }
+    }
+
+    /**
+     * Uploads post data from request body while it is being received,
+     * format and compression are detected the same way as for uploaded file
+     *
+     * @param inputStream request body
+     * @param contentType content type of request body
+     * @return number of successful and failed saved posts
+     * @throws IllegalArgumentException if body is not valid JSON array or gzip stream
+     */
+    public UploadedPostsRestResponse uploadFromStream(InputStream inputStream, String contentType) {
+        return uploadFromStream(inputStream, null, contentType);
+    }
 
+    private UploadedPostsRestResponse uploadFromStream(InputStream inputStream, String fileName, String contentType) {
         try {
-            byte[] fileBytes = file.getBytes();
-            List<PostDto> postDtoList = objectMapper.readValue(fileBytes, new TypeReference<List<PostDto>>() {});
-
-            List<Post> validPosts = new ArrayList<>();
-            for (PostDto postDto : postDtoList) {
-                if (!hasValidPostFields(postDto)) {
-                    failedCount++;
-                    continue;
-                }
-
-                try{
-                    Post post = convertFromUpload(postDto);
-                    validPosts.add(post);
-                    successfulCount++;
-                } catch(EntityNotFoundException e){
-                    failedCount++;
-                }
-            }
+            return postImporter.importPosts(PostRecordReaders.open(objectMapper, inputStream, fileName, contentType,
+                    postImporter.getReadLimits()));
+        } catch (ZipException | EOFException e) {
+            throw new IllegalArgumentException("Invalid gzip file: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error uploading file", e);
+        }
+    }
 
-            postRepository.saveAll(validPosts);
+    private Page<PostDto> searchText(PostBitmapIndex index, PostQueryDto postQueryDto, Pageable pageable) {
+        List<String> terms = PostTextIndex.tokenize(postQueryDto.getText());
+        if (terms.isEmpty()) {
+            // text of single letters and punctuation matches no posts on both paths
+            return Page.empty(pageable);
+        }
 
-        } catch(IOException e) {
-            throw new RuntimeException("Error uploading file", e);
+        PostTextIndex textIndex = postTextIndex.getIfAvailable();
+        if (index == null || !index.isReady() || textIndex == null || !textIndex.isReady()) {
+            Specification<Post> specification = buildSpecification(postQueryDto)
+                    .and(PostSpecifications.containsText(terms));
+            return findPostDtoPage(specification, pageable, postQueryDto.getView());
         }
 
-        return new UploadedPostsRestResponse("Posts successfully uploaded from file: " + successfulCount,
-                "Posts uploading failed: " + failedCount);
+        PostIndexPage indexPage = textIndex.search(
+                postQueryDto.getText(), index.match(postQueryDto), pageable.getOffset(), pageable.getPageSize());
+        List<PostDto> posts = findPostDtosInOrder(indexPage.ids(), postQueryDto.getView());
+        return new PageImpl<>(posts, pageable, indexPage.totalElements());
     }
 
-    private Specification<Post> buildSpecification(PostFilter filter) {
-        return Specification
-                .where(PostSpecifications.hasCountry(filter.getCountry()))
-                .and(PostSpecifications.hasCategory(filter.getCategory()))
-                .and(PostSpecifications.isCreatedAfter(filter.getCreatedAfter()))
-                .and(PostSpecifications.hasMinRating(filter.getMinRating()))
-                .and(PostSpecifications.hasUserId(filter.getUserId()));
+    private FilteredPostResponse searchAfterCursor(PostQueryDto postQueryDto) {
+        int size = getKeysetPageSize(postQueryDto);
+
+        Specification<Post> specification = buildSpecification(postQueryDto);
+        if (!postQueryDto.getCursor().isEmpty()) {
+            PostCursor cursor = PostCursor.decode(postQueryDto.getCursor());
+            specification = specification.and(PostSpecifications.isBefore(cursor.createdAt(), cursor.id()));
+        }
+
+        List<PostDto> posts;
+        if (postQueryDto.getView() == PostView.SUMMARY) {
+            posts = mapSummariesToPostDtos(postRepository.findSummaries(specification, SEARCH_SORT, 0, size + 1));
+        } else {
+            posts = mapPostsToPostDtos(postRepository.findBy(specification, query -> query
+                    .sortBy(SEARCH_SORT)
+                    .limit(size + 1)
+                    .all()));
+        }
+
+        boolean hasNextPage = posts.size() > size;
+        return toKeysetResponse(hasNextPage ? posts.subList(0, size) : posts, hasNextPage);
+    }
+
+    private FilteredPostResponse searchIndexAfterCursor(PostBitmapIndex index, PostQueryDto postQueryDto) {
+        int size = getKeysetPageSize(postQueryDto);
+        PostCursor cursor = postQueryDto.getCursor().isEmpty() ? null : PostCursor.decode(postQueryDto.getCursor());
+
+        List<Long> ids = index.search(postQueryDto, cursor, 0, size + 1, false).ids();
+
+        boolean hasNextPage = ids.size() > size;
+        return toKeysetResponse(findPostDtosInOrder(hasNextPage ? ids.subList(0, size) : ids, postQueryDto.getView()), hasNextPage);
     }
 
-    private void createHeaderRow(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        String[] columns = {"id", "title", "content", "country", "categories", "createdAt", "rating", "userId"};
-        for (int i = 0; i < columns.length; i++) {
-            headerRow.createCell(i).setCellValue(columns[i]);
+    private int getKeysetPageSize(PostQueryDto postQueryDto) {
+        if (postQueryDto.getSize() < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
         }
+        return postQueryDto.getSize();
     }
 
-    private void fillDataRows(Sheet sheet, List<Post> posts) {
-        int rowNum = 1;
-        for (Post post : posts) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(post.getId());
-            row.createCell(1).setCellValue(post.getTitle());
-            row.createCell(2).setCellValue(post.getContent());
-            row.createCell(3).setCellValue(post.getCountry());
-
-            String categories = post.getCategories() != null ? String.join(", ", post.getCategories()) : "";
-            row.createCell(4).setCellValue(categories);
-
-            row.createCell(5).setCellValue(post.getCreatedAt().toString());
-            row.createCell(6).setCellValue(post.getRating());
-            row.createCell(7).setCellValue(post.getUser().getId());
+    private FilteredPostResponse toKeysetResponse(List<PostDto> posts, boolean hasNextPage) {
+        String nextCursor = null;
+        if (hasNextPage && !posts.isEmpty()) {
+            PostDto last = posts.get(posts.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
         }
+
+        return new FilteredPostResponse(
+                posts,
+                null,
+                null,
+                nextCursor
+        );
+    }
+
+    private List<PostDto> findPostDtosInOrder(List<Long> ids, PostView view) {
+        List<PostDto> posts = view == PostView.SUMMARY
+                ? mapSummariesToPostDtos(postRepository.findSummaries(PostSpecifications.hasIdIn(ids), Sort.unsorted(), 0, ids.size()))
+                : mapPostsToPostDtos(postRepository.findAllById(ids));
+
+        Map<Long, PostDto> postsById = posts.stream()
+                .collect(Collectors.toMap(PostDto::getId, Function.identity()));
+
+        return ids.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private void autoSizeColumns(Sheet sheet) {
-        int totalColumns = sheet.getRow(0).getPhysicalNumberOfCells();
-        for (int i = 0; i < totalColumns; i++) {
-            if (i == 2) continue; // content може бути дуже довгим
-            sheet.autoSizeColumn(i);
+    private Page<PostDto> findPostDtoPage(Specification<Post> specification, Pageable pageable, PostView view) {
+        if (view != PostView.SUMMARY) {
+            Page<Post> page = postRepository.findAll(specification, pageable);
+            return new PageImpl<>(mapPostsToPostDtos(page.getContent()), pageable, page.getTotalElements());
         }
+
+        List<PostDto> posts = mapSummariesToPostDtos(postRepository.findSummaries(
+                specification, pageable.getSort(), pageable.getOffset(), pageable.getPageSize()));
+        return PageableExecutionUtils.getPage(posts, pageable, () -> postRepository.count(specification));
     }
 
+    /**
+     * Maps posts to dtos loading categories of all posts with one query,
+     * author id is taken from the lazy author reference without loading it
+     */
+    private List<PostDto> mapPostsToPostDtos(List<Post> posts) {
+        Map<Long, List<String>> categoriesByPostId = findCategoriesByPostId(posts.stream().map(Post::getId).toList());
+        return posts.stream()
+                .map(post -> mapPostToPostDto(post, categoriesByPostId.getOrDefault(post.getId(), List.of())))
+                .toList();
+    }
 
-    private Post convertFromUpload(PostDto postDto) {
-        Post post = new Post();
+    private List<PostDto> mapSummariesToPostDtos(List<PostSummaryRow> summaries) {
+        Map<Long, List<String>> categoriesByPostId = findCategoriesByPostId(summaries.stream().map(PostSummaryRow::id).toList());
+        return summaries.stream()
+                .map(summary -> new PostDto(
+                        summary.id(),
+                        summary.title(),
+                        null,
+                        summary.teaser(),
+                        summary.country(),
+                        categoriesByPostId.getOrDefault(summary.id(), List.of()),
+                        summary.createdAt(),
+                        summary.rating(),
+                        summary.userId(),
+                        summary.version()))
+                .toList();
+    }
 
-        post.setTitle(postDto.getTitle());
-        post.setContent(postDto.getContent());
-        post.setCountry(postDto.getCountry());
-        post.setCategories(postDto.getCategories());
-        post.setCreatedAt(postDto.getCreatedAt());
-        post.setRating(postDto.getRating());
+    private Map<Long, List<String>> findCategoriesByPostId(List<Long> ids) {
+        Map<Long, List<String>> categoriesByPostId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            postRepository.findCategoryRows(ids).forEach(row -> categoriesByPostId
+                    .computeIfAbsent(row.getPostId(), postId -> new ArrayList<>())
+                    .add(row.getCategory()));
+        }
+        return categoriesByPostId;
+    }
 
-        post.setUser(userRepository.findById(postDto.getUserId())
-                .orElseThrow(() -> new EntityNotFoundException("User not found for id: " + postDto.getUserId())));
+    private Specification<Post> buildSpecification(PostFilter filter) {
+        return PostSpecifications.matchesFilter(filter);
+    }
 
-        return post;
+    private static PostFilteredFieldsDto copyFilter(PostFilter filter) {
+        PostFilteredFieldsDto copy = new PostFilteredFieldsDto();
+        copy.setCountry(filter.getCountry());
+        copy.setCategory(filter.getCategory());
+        copy.setCreatedAfter(filter.getCreatedAfter());
+        copy.setMinRating(filter.getMinRating());
+        copy.setUserId(filter.getUserId());
+        return copy;
     }
 
     private PostDto mapPostToPostDto(Post post){
+        return mapPostToPostDto(post, post.getCategories());
+    }
+
+    private PostDto mapPostToPostDto(Post post, List<String> categories){
         PostDto postDto = new PostDto();
         postDto.setId(post.getId());
         postDto.setTitle(post.getTitle());
         postDto.setContent(post.getContent());
+        postDto.setTeaser(post.getTeaser());
         postDto.setCountry(post.getCountry());
-        postDto.setCategories(post.getCategories());
+        postDto.setCategories(categories);
         postDto.setCreatedAt(post.getCreatedAt());
         postDto.setRating(post.getRating());
         postDto.setUserId(post.getUser().getId());
+        postDto.setVersion(post.getVersion());
         return postDto;
     }
 
-    private boolean isValidJsonFile(MultipartFile file) {
-        try {
-            byte[] fileBytes = file.getBytes();
-            objectMapper.readValue(fileBytes, new TypeReference<List<PostDto>>() {});
-            return true;
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    private boolean hasValidPostFields(PostDto postDto) {
-        return postDto.getTitle() != null && !postDto.getTitle().isBlank()
-                && postDto.getContent() != null && postDto.getContent().length() >= 10
-                && postDto.getCountry() != null && !postDto.getCountry().isBlank()
-                && postDto.getCategories() != null && !postDto.getCategories().isEmpty()
-                && postDto.getCreatedAt() != null
-                && postDto.getRating() != null
-                && postDto.getUserId() != null;
-    }
-
 }
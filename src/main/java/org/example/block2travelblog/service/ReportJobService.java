@@ -0,0 +1,18 @@
+package org.example.block2travelblog.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.block2travelblog.dto.PostFilteredFieldsDto;
+import org.example.block2travelblog.dto.ReportJobDto;
+
+/**
+ * Service Interface for posts report jobs operations.
+ */
+public interface ReportJobService {
+
+    ReportJobDto submit(PostFilteredFieldsDto postFilteredFieldsDto, String format);
+
+    ReportJobDto getJob(Long id);
+
+    void download(Long id, String range, String ifRange, HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,282 @@
+package org.example.block2travelblog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.data.ReportJob;
+import org.example.block2travelblog.data.ReportJobStatus;
+import org.example.block2travelblog.dto.PostFilteredFieldsDto;
+import org.example.block2travelblog.dto.ReportJobDto;
+import org.example.block2travelblog.exception.ReportNotReadyException;
+import org.example.block2travelblog.report.PostReportFormat;
+import org.example.block2travelblog.report.ReportJobRunner;
+import org.example.block2travelblog.repository.ReportJobRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Service implementation for posts report jobs operations.
+ * Reports are generated in background by {@link ReportJobRunner} and downloaded from local disk,
+ * with a single byte range per request and sendfile when servlet container supports it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final List<ReportJobStatus> REUSABLE_STATUSES =
+            List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED);
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportJobRunner reportJobRunner;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queues report generation, or returns job for the same filter and format
+     * which is completed, running or queued for the current data of filtered posts
+     *
+     * @param postFilteredFieldsDto fields for filtering
+     * @param format report format: xlsx, csv or ndjson
+     * @return queued or reused job
+     * @throws IllegalArgumentException if format is not supported
+     * @throws RejectedExecutionException if queue of report jobs is full
+     */
+    @Override
+    public ReportJobDto submit(PostFilteredFieldsDto postFilteredFieldsDto, String format) {
+        PostReportFormat reportFormat = parseFormat(format);
+        String filter = writeFilter(postFilteredFieldsDto);
+        String filterHash = sha256(reportFormat.name() + "\n" + filter);
+        String dataVersion = reportJobRunner.currentDataVersion(postFilteredFieldsDto);
+
+        Optional<ReportJob> existing = reportJobRepository
+                .findFirstByFilterHashAndDataVersionAndStatusInOrderByIdDesc(filterHash, dataVersion, REUSABLE_STATUSES);
+        if (existing.isPresent() && (existing.get().getStatus() != ReportJobStatus.COMPLETED
+                || Files.exists(Path.of(existing.get().getArtifactPath())))) {
+            return mapReportJobToReportJobDto(existing.get(), true);
+        }
+
+        ReportJob job = new ReportJob();
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setFormat(reportFormat);
+        job.setFilterHash(filterHash);
+        job.setFilter(filter);
+        job.setDataVersion(dataVersion);
+        job.setCreatedAt(Instant.now());
+        job = reportJobRepository.save(job);
+
+        try {
+            reportJobRunner.submit(job.getId());
+        } catch (RejectedExecutionException e) {
+            reportJobRepository.delete(job);
+            throw e;
+        }
+
+        return mapReportJobToReportJobDto(job, false);
+    }
+
+    /**
+     * Retrieves report job state
+     *
+     * @param id job id
+     * @return job state
+     * @throws EntityNotFoundException if job not found
+     */
+    @Override
+    public ReportJobDto getJob(Long id) {
+        return mapReportJobToReportJobDto(findJob(id), false);
+    }
+
+    /**
+     * Writes report file of completed job to response, whole or a single byte range of it.
+     * Range is ignored if it has several parts or If-Range does not match report ETag.
+     *
+     * @param id job id
+     * @param range value of Range header, may be null
+     * @param ifRange value of If-Range header, may be null
+     * @param request
+     * @param response
+     * @throws EntityNotFoundException if job or its file not found
+     * @throws ReportNotReadyException if job is not completed
+     */
+    @Override
+    public void download(Long id, String range, String ifRange, HttpServletRequest request, HttpServletResponse response) {
+        ReportJob job = findJob(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ReportNotReadyException("Report job " + id + " is not completed, job status: " + job.getStatus());
+        }
+        Path path = Path.of(job.getArtifactPath());
+        if (!Files.isReadable(path)) {
+            throw new EntityNotFoundException("Report file not found for job id: " + id);
+        }
+
+        try {
+            long size = Files.size(path);
+            String eTag = "\"" + id + "-" + size + "\"";
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, eTag);
+
+            ByteRange byteRange = ifRange == null || ifRange.equals(eTag) ? ByteRange.parse(range, size) : null;
+            if (byteRange == ByteRange.UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+
+            long start = 0;
+            long end = size;
+            if (byteRange != null) {
+                start = byteRange.start();
+                end = byteRange.end() + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + byteRange.start() + "-" + byteRange.end() + "/" + size);
+            }
+            response.setContentType(job.getFormat().getMediaType().toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFormat().getFileName());
+            response.setContentLengthLong(end - start);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+                // container sends the file after the handler returns
+                request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+                request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+                return;
+            }
+            transfer(path, start, end, response);
+        } catch (IOException e) {
+            throw new RuntimeException("Error sending report file", e);
+        }
+    }
+
+    private static void transfer(Path path, long start, long end, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Report file is shorter than expected: " + path);
+                }
+                position += transferred;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private ReportJob findJob(Long id) {
+        return reportJobRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Report job not found for id: " + id));
+    }
+
+    private String writeFilter(PostFilteredFieldsDto postFilteredFieldsDto) {
+        try {
+            return objectMapper.writeValueAsString(postFilteredFieldsDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid report filter", e);
+        }
+    }
+
+    private static PostReportFormat parseFormat(String format) {
+        try {
+            return PostReportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported report format: " + format);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ReportJobDto mapReportJobToReportJobDto(ReportJob job, boolean reused) {
+        ReportJobDto reportJobDto = new ReportJobDto();
+        reportJobDto.setId(job.getId());
+        reportJobDto.setStatus(job.getStatus());
+        reportJobDto.setFormat(job.getFormat());
+        reportJobDto.setCreatedAt(job.getCreatedAt());
+        reportJobDto.setStartedAt(job.getStartedAt());
+        reportJobDto.setFinishedAt(job.getFinishedAt());
+        reportJobDto.setPostCount(job.getPostCount());
+        reportJobDto.setSizeBytes(job.getSizeBytes());
+        reportJobDto.setReused(reused);
+        reportJobDto.setErrorMessage(job.getErrorMessage());
+        return reportJobDto;
+    }
+
+    /**
+     * Inclusive byte range of the file.
+     */
+    private record ByteRange(long start, long end) {
+
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        /**
+         * @param range value of Range header
+         * @param size file size
+         * @return requested range, {@link #UNSATISFIABLE} if it is outside the file,
+         * null if header is missing, invalid or has several ranges
+         */
+        static ByteRange parse(String range, long size) {
+            if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+                return null;
+            }
+            String spec = range.substring("bytes=".length()).trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+
+            try {
+                if (dash == 0) {
+                    long suffixLength = Long.parseLong(spec.substring(1));
+                    if (suffixLength < 0) {
+                        return null;
+                    }
+                    if (suffixLength == 0 || size == 0) {
+                        return UNSATISFIABLE;
+                    }
+                    return new ByteRange(Math.max(size - suffixLength, 0), size - 1);
+                }
+
+                long start = Long.parseLong(spec.substring(0, dash));
+                long end = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+                if (start >= size) {
+                    return UNSATISFIABLE;
+                }
+                if (end < start) {
+                    return null;
+                }
+                return new ByteRange(start, Math.min(end, size - 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.example.block2travelblog.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.example.block2travelblog.cache.PostDetailsCache;
 import org.example.block2travelblog.data.User;
 import org.example.block2travelblog.dto.SaveUserDto;
 import org.example.block2travelblog.dto.UserDto;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Service implementation for posts operations.
@@ -22,6 +24,7 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final PostDetailsCache postDetailsCache;
 
     /**
      * Retrieves all users
@@ -79,12 +82,18 @@ public class UserServiceImpl implements UserService {
         checkIfUserExistsWithEmail(saveUserDto.getEmail(), id);
 
         User user = userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("User not found"));
+        boolean authorChanged = !Objects.equals(user.getName(), saveUserDto.getName())
+                || !Objects.equals(user.getEmail(), saveUserDto.getEmail());
         user.setName(saveUserDto.getName());
         user.setEmail(saveUserDto.getEmail());
         user.setPassword(saveUserDto.getPassword());
 
         User updatedUser = userRepository.save(user);
 
+        if (authorChanged) {
+            postDetailsCache.invalidateByAuthor(id);
+        }
+
         return mapUserToUserDto(updatedUser);
     }
 
@@ -95,10 +104,12 @@ public class UserServiceImpl implements UserService {
      * @throws EntityNotFoundException if user not found by id
      */
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         if(!userRepository.existsById(id)) {
             throw new EntityNotFoundException("User not found");
         }
+        userRepository.removeFollowerFromFollowees(id);
         userRepository.deleteById(id);
     }
 
@@ -0,0 +1,86 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Author ids already checked during single import, shared by chunks saved in parallel.
+ * Ids not seen before are checked with single query per chunk.
+ * Unknown ids are remembered in a bounded least recently used map, so an import referencing
+ * many missing authors queries again only ids evicted from it.
+ */
+class ImportAuthors {
+
+    /**
+     * Limits unknown author ids remembered and reported for single import.
+     */
+    private static final int MAX_UNKNOWN_USER_IDS = 1000;
+
+    /**
+     * Limits unknown author ids remembered to skip their checks in next chunks.
+     */
+    private static final int MAX_REMEMBERED_UNKNOWN_USER_IDS = 10_000;
+
+    private final UserRepository userRepository;
+    private final Set<Long> known = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unknown = new ConcurrentSkipListSet<>();
+    private final Map<Long, Boolean> recentUnknown = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                    return size() > MAX_REMEMBERED_UNKNOWN_USER_IDS;
+                }
+            });
+
+    ImportAuthors(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Checks ids not seen before in this import
+     *
+     * @param ids author ids of chunk
+     */
+    void resolve(Collection<Long> ids) {
+        List<Long> unresolved = ids.stream()
+                .distinct()
+                // get refreshes recently used unknown id
+                .filter(id -> !known.contains(id) && recentUnknown.get(id) == null)
+                .toList();
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        Set<Long> existing = new HashSet<>(userRepository.findExistingIds(unresolved));
+        for (Long id : unresolved) {
+            if (existing.contains(id)) {
+                known.add(id);
+                continue;
+            }
+            recentUnknown.put(id, Boolean.TRUE);
+            if (unknown.size() < MAX_UNKNOWN_USER_IDS) {
+                unknown.add(id);
+            }
+        }
+    }
+
+    boolean isKnown(Long id) {
+        return known.contains(id);
+    }
+
+    /**
+     * @return sorted unknown author ids, at most {@value MAX_UNKNOWN_USER_IDS}
+     */
+    List<Long> getUnknown() {
+        return List.copyOf(unknown);
+    }
+}
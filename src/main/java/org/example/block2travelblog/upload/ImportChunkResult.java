@@ -0,0 +1,13 @@
+package org.example.block2travelblog.upload;
+
+import java.util.List;
+
+/**
+ * Result of saving single chunk of uploaded records.
+ *
+ * @param imported count of saved posts
+ * @param duplicates count of posts skipped because they are already stored or repeated in the chunk
+ * @param failed records which were not saved, with reasons
+ */
+record ImportChunkResult(int imported, int duplicates, List<PostRecord> failed) {
+}
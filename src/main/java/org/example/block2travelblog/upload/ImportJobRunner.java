@@ -0,0 +1,364 @@
+package org.example.block2travelblog.upload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.data.ImportJob;
+import org.example.block2travelblog.data.ImportJobChunk;
+import org.example.block2travelblog.data.ImportJobError;
+import org.example.block2travelblog.data.ImportJobStatus;
+import org.example.block2travelblog.repository.ImportJobChunkRepository;
+import org.example.block2travelblog.repository.ImportJobErrorRepository;
+import org.example.block2travelblog.repository.ImportJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs import jobs in background.
+ * Spooled file of a job is read sequentially and its chunks are saved in parallel on a shared pool,
+ * each chunk in its own transaction together with its marker, counters and errors.
+ * Count of chunks read ahead of saving is bounded per job, so memory does not depend on file size.
+ * Failed job keeps its committed chunks and skips them when resumed.
+ * Job is claimed with conditional status update and keeps a heartbeat while running,
+ * so it is run by a single instance and is taken over when its instance stops or dies.
+ */
+@Slf4j
+@Component
+public class ImportJobRunner {
+
+    /**
+     * Length of error message columns.
+     */
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobChunkRepository importJobChunkRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final PostImporter postImporter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ThreadPoolExecutor chunkExecutor;
+    private final int maxChunksInFlight;
+    private final int maxErrors;
+    private final boolean resumeOnStartup;
+    private final Duration heartbeatTimeout;
+    private final Duration failedRetention;
+
+    /**
+     * Jobs queued or running on this instance.
+     */
+    private final Set<Long> localJobIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    public ImportJobRunner(ImportJobRepository importJobRepository,
+                           ImportJobChunkRepository importJobChunkRepository,
+                           ImportJobErrorRepository importJobErrorRepository,
+                           PostImporter postImporter,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${blog.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                           @Value("${blog.import.queue-capacity:100}") int queueCapacity,
+                           @Value("${blog.import.threads:4}") int threads,
+                           @Value("${blog.import.max-errors:1000}") int maxErrors,
+                           @Value("${blog.import.resume-on-startup:true}") boolean resumeOnStartup,
+                           @Value("${blog.import.heartbeat-timeout:5m}") Duration heartbeatTimeout,
+                           @Value("${blog.import.failed-retention:7d}") Duration failedRetention) {
+        this.importJobRepository = importJobRepository;
+        this.importJobChunkRepository = importJobChunkRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.postImporter = postImporter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxChunksInFlight = threads * 2;
+        this.jobExecutor = newExecutor(maxConcurrentJobs, queueCapacity, "import-job-");
+        // chunks in flight are limited per running job, so chunk queue never overflows
+        this.chunkExecutor = newExecutor(threads, maxConcurrentJobs * maxChunksInFlight, "import-chunk-");
+        this.maxErrors = maxErrors;
+        this.resumeOnStartup = resumeOnStartup;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.failedRetention = failedRetention;
+    }
+
+    /**
+     * Stops reading new chunks, running jobs are left for resume after their chunks in flight are committed
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        jobExecutor.shutdown();
+        if (!jobExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            jobExecutor.shutdownNow();
+        }
+        chunkExecutor.shutdown();
+        chunkExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Resubmits jobs which were queued or running when application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (resumeOnStartup) {
+            resubmitPending();
+        }
+    }
+
+    /**
+     * Takes over queued jobs and jobs whose instance stopped sending heartbeats,
+     * deletes spooled files of jobs failed before retention period
+     */
+    @Scheduled(fixedDelayString = "${blog.import.sweep-fixed-delay:60000}",
+            initialDelayString = "${blog.import.sweep-fixed-delay:60000}")
+    public void sweep() {
+        if (resumeOnStartup) {
+            resubmitPending();
+        }
+
+        for (ImportJob job : importJobRepository.findByStatusAndFinishedAtBeforeAndSpoolPathNotNull(
+                ImportJobStatus.FAILED, Instant.now().minus(failedRetention))) {
+            deleteSpoolFile(job);
+            job.setSpoolPath(null);
+            importJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Queues job for running, job already queued on this instance is not queued again
+     *
+     * @param jobId queued job id
+     * @throws RejectedExecutionException if queue of jobs is full
+     */
+    public void submit(Long jobId) {
+        if (!localJobIds.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    localJobIds.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            localJobIds.remove(jobId);
+            throw e;
+        }
+    }
+
+    private void resubmitPending() {
+        Instant staleBefore = Instant.now().minus(heartbeatTimeout);
+        for (ImportJob job : importJobRepository.findByStatusInOrderByIdAsc(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))) {
+            if (job.getStatus() == ImportJobStatus.RUNNING && job.getHeartbeatAt() != null
+                    && job.getHeartbeatAt().isAfter(staleBefore)) {
+                continue;
+            }
+            try {
+                submit(job.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("Import job {} was not resumed, queue is full", job.getId());
+                return;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        if (stopping) {
+            return;
+        }
+        ImportJob job = transactionTemplate.execute(status -> start(jobId));
+        if (job == null) {
+            return;
+        }
+
+        Set<Integer> committedChunks = new HashSet<>(importJobChunkRepository.findChunkIndexes(jobId));
+        AtomicLong errorsLeft = new AtomicLong(maxErrors - importJobErrorRepository.countByJobId(jobId));
+        ImportAuthors authors = postImporter.newImportAuthors();
+        Semaphore chunksInFlight = new Semaphore(maxChunksInFlight);
+        AtomicReference<String> failure = new AtomicReference<>();
+        boolean interrupted = false;
+
+        try (PostRecordReader reader = PostRecordReaders.open(objectMapper,
+                Files.newInputStream(Path.of(job.getSpoolPath())), job.getFileName(), null, postImporter.getReadLimits())) {
+            int chunkIndex = 0;
+            List<PostRecord> chunk = new ArrayList<>(job.getChunkSize());
+            PostRecord record;
+            while (failure.get() == null && !stopping && (record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == job.getChunkSize()) {
+                    if (!committedChunks.contains(chunkIndex)) {
+                        submitChunk(jobId, chunkIndex, chunk, authors, errorsLeft, chunksInFlight, failure);
+                    }
+                    chunkIndex++;
+                    chunk = new ArrayList<>(job.getChunkSize());
+                }
+            }
+            if (stopping) {
+                interrupted = true;
+            } else if (failure.get() == null && !chunk.isEmpty() && !committedChunks.contains(chunkIndex)) {
+                submitChunk(jobId, chunkIndex, chunk, authors, errorsLeft, chunksInFlight, failure);
+            }
+        } catch (ClosedByInterruptException e) {
+            interrupted = true;
+        } catch (IOException e) {
+            if (stopping) {
+                interrupted = true;
+            } else {
+                failure.compareAndSet(null, "Invalid JSON file format: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        } catch (RuntimeException e) {
+            log.error("Import job {} failed", jobId, e);
+            failure.compareAndSet(null, e.getMessage());
+        }
+
+        chunksInFlight.acquireUninterruptibly(maxChunksInFlight);
+        if (interrupted && failure.get() == null) {
+            transactionTemplate.executeWithoutResult(status -> importJobRepository.release(jobId));
+            log.info("Import job {} was stopped and will be resumed", jobId);
+            return;
+        }
+        finish(job, failure.get());
+    }
+
+    private ImportJob start(Long jobId) {
+        Instant now = Instant.now();
+        if (importJobRepository.claim(jobId, now, now.minus(heartbeatTimeout)) == 0) {
+            return null;
+        }
+
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setStartedAt(now);
+        job.setFinishedAt(null);
+        job.setErrorMessage(null);
+        job.setProcessedAtStart(job.getImportedCount() + job.getDuplicateCount() + job.getFailedCount());
+        return importJobRepository.save(job);
+    }
+
+    private void submitChunk(Long jobId, int chunkIndex, List<PostRecord> chunk, ImportAuthors authors,
+                             AtomicLong errorsLeft, Semaphore chunksInFlight, AtomicReference<String> failure)
+            throws InterruptedException {
+        chunksInFlight.acquire();
+        try {
+            chunkExecutor.execute(() -> {
+                try {
+                    postImporter.retryingDuplicates(useFingerprintFilter -> transactionTemplate.execute(status ->
+                            saveChunk(jobId, chunkIndex, chunk, authors, errorsLeft, useFingerprintFilter)));
+                } catch (RuntimeException e) {
+                    log.error("Chunk {} of import job {} failed", chunkIndex, jobId, e);
+                    failure.compareAndSet(null, "Chunk " + chunkIndex + " failed: " + e.getMessage());
+                } finally {
+                    chunksInFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            chunksInFlight.release();
+            throw e;
+        }
+    }
+
+    private ImportChunkResult saveChunk(Long jobId, int chunkIndex, List<PostRecord> chunk, ImportAuthors authors,
+                                        AtomicLong errorsLeft, boolean useFingerprintFilter) {
+        ImportChunkResult result = postImporter.saveChunk(chunk, authors, useFingerprintFilter);
+
+        int reservedErrors = reserveErrors(errorsLeft, result.failed().size());
+        List<ImportJobError> errors = result.failed().stream()
+                .limit(reservedErrors)
+                .map(record -> new ImportJobError(null, jobId, record.number(), truncate(record.error())))
+                .toList();
+        importJobErrorRepository.saveAll(errors);
+        importJobChunkRepository.save(new ImportJobChunk(jobId, chunkIndex, result.imported(), result.duplicates(), result.failed().size()));
+
+        // job row is locked until commit, so counters are updated last
+        importJobRepository.addChunkResult(jobId, result.imported(), result.duplicates(), result.failed().size(), Instant.now());
+        return result;
+    }
+
+    /**
+     * Takes up to requested count of errors from errors left for the job,
+     * they are returned when chunk transaction is rolled back
+     */
+    private static int reserveErrors(AtomicLong errorsLeft, int requested) {
+        long left = errorsLeft.getAndUpdate(current -> Math.max(current - requested, 0));
+        int reserved = (int) Math.max(Math.min(left, requested), 0);
+        if (reserved > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        errorsLeft.addAndGet(reserved);
+                    }
+                }
+            });
+        }
+        return reserved;
+    }
+
+    private void finish(ImportJob job, String failure) {
+        transactionTemplate.executeWithoutResult(status -> importJobRepository.findById(job.getId()).ifPresent(current -> {
+            current.setStatus(failure == null ? ImportJobStatus.COMPLETED : ImportJobStatus.FAILED);
+            current.setFinishedAt(Instant.now());
+            current.setErrorMessage(truncate(failure));
+            importJobRepository.save(current);
+        }));
+
+        if (failure == null) {
+            deleteSpoolFile(job);
+        } else {
+            log.warn("Import job {} failed: {}", job.getId(), failure);
+        }
+    }
+
+    private static void deleteSpoolFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(Path.of(job.getSpoolPath()));
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled file {}", job.getSpoolPath(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, int queueCapacity, String threadNamePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.block2travelblog.upload;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.block2travelblog.dto.PostDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads posts from JSON array streaming its elements,
+ * only the current element is kept in memory.
+ */
+public class JsonArrayPostRecordReader implements PostRecordReader {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private long number;
+    private boolean started;
+    private boolean finished;
+
+    public JsonArrayPostRecordReader(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.createParser(inputStream);
+    }
+
+    @Override
+    public PostRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected array of posts");
+            }
+            started = true;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after array of posts");
+            }
+            finished = true;
+            return null;
+        }
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of array of posts");
+        }
+
+        number++;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return PostRecord.invalid(number, "Expected post object");
+        }
+
+        JsonNode element = parser.readValueAsTree();
+        try {
+            return PostRecord.valid(objectMapper.treeToValue(element, PostDto.class), number);
+        } catch (JsonProcessingException e) {
+            return PostRecord.invalid(number, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
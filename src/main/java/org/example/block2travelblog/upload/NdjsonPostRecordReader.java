@@ -0,0 +1,131 @@
+package org.example.block2travelblog.upload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.block2travelblog.dto.PostDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads posts from newline-delimited JSON, one post object per line.
+ * Every line is parsed on its own, so malformed line is returned as invalid record
+ * and reading continues with the next line. Record number is the line number, blank lines are skipped.
+ * Line longer than the limit fails reading, so a file without line breaks is never buffered whole.
+ */
+public class NdjsonPostRecordReader implements PostRecordReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final ObjectMapper objectMapper;
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long lineNumber;
+
+    /**
+     * @param objectMapper mapper used to convert records
+     * @param inputStream UTF-8 content, closed with the reader
+     * @param maxLineLength max count of characters in a line
+     */
+    public NdjsonPostRecordReader(ObjectMapper objectMapper, InputStream inputStream, int maxLineLength) {
+        this.objectMapper = objectMapper;
+        this.reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public PostRecord next() throws IOException {
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        JsonNode element;
+        try {
+            element = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return PostRecord.invalid(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!element.isObject()) {
+            return PostRecord.invalid(lineNumber, "Expected post object");
+        }
+
+        try {
+            return PostRecord.valid(objectMapper.treeToValue(element, PostDto.class), lineNumber);
+        } catch (JsonProcessingException e) {
+            return PostRecord.invalid(lineNumber, e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Reads line ended by LF or CRLF, byte order mark is dropped from the first line
+     *
+     * @return line without line break, null at the end of content
+     * @throws IOException if line is longer than the limit
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = null;
+        while (true) {
+            if (position == limit) {
+                int read = reader.read(buffer, 0, buffer.length);
+                if (read <= 0) {
+                    return line != null ? stripLine(line) : null;
+                }
+                position = 0;
+                limit = read;
+            }
+
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            int length = position - start;
+            // room for CR and byte order mark, length is checked again when they are stripped
+            if ((line != null ? line.length() : 0) + length > maxLineLength + 2) {
+                throw lineTooLong();
+            }
+            if (line == null) {
+                line = new StringBuilder(Math.max(length, 16));
+            }
+            line.append(buffer, start, length);
+
+            if (position < limit) {
+                position++;
+                return stripLine(line);
+            }
+        }
+    }
+
+    private String stripLine(StringBuilder line) throws IOException {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        int start = lineNumber == 0 && end > 0 && line.charAt(0) == BYTE_ORDER_MARK ? 1 : 0;
+        if (end - start > maxLineLength) {
+            throw lineTooLong();
+        }
+        return line.substring(start, end);
+    }
+
+    private IOException lineTooLong() {
+        return new IOException("Line " + (lineNumber + 1) + " is longer than " + maxLineLength + " characters");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.dto.PostDto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 64-bit content fingerprint of post used to skip already imported posts.
+ * Computed with XXH64 over title, content, country, author and creation date,
+ * each text field prefixed with its length so that field boundaries can not be shifted.
+ */
+public final class PostFingerprint {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private PostFingerprint() {
+    }
+
+    /**
+     * Computes fingerprint of uploaded post
+     *
+     * @param postDto uploaded post
+     * @return post fingerprint
+     */
+    public static long of(PostDto postDto) {
+        return of(postDto.getTitle(), postDto.getContent(), postDto.getCountry(), postDto.getUserId(), postDto.getCreatedAt());
+    }
+
+    /**
+     * Computes fingerprint of post fields
+     *
+     * @param title post title
+     * @param content post content
+     * @param country post country
+     * @param userId author id
+     * @param createdAt creation date
+     * @return post fingerprint
+     */
+    public static long of(String title, String content, String country, Long userId, LocalDate createdAt) {
+        byte[] titleBytes = bytes(title);
+        byte[] contentBytes = bytes(content);
+        byte[] countryBytes = bytes(country);
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + 2 * Long.BYTES
+                        + length(titleBytes) + length(contentBytes) + length(countryBytes))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        put(buffer, titleBytes);
+        put(buffer, contentBytes);
+        put(buffer, countryBytes);
+        buffer.putLong(userId != null ? userId : Long.MIN_VALUE);
+        buffer.putLong(createdAt != null ? createdAt.toEpochDay() : Long.MIN_VALUE);
+
+        return xxh64(buffer.array(), 0L);
+    }
+
+    /**
+     * Computes XXH64 hash
+     *
+     * @param input bytes to hash
+     * @param seed hash seed
+     * @return 64-bit hash
+     */
+    static long xxh64(byte[] input, long seed) {
+        int length = input.length;
+        int offset = 0;
+        long hash;
+
+        if (length >= 32) {
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+            do {
+                v1 = round(v1, (long) LONG_LE.get(input, offset));
+                v2 = round(v2, (long) LONG_LE.get(input, offset + 8));
+                v3 = round(v3, (long) LONG_LE.get(input, offset + 16));
+                v4 = round(v4, (long) LONG_LE.get(input, offset + 24));
+                offset += 32;
+            } while (offset <= length - 32);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME5;
+        }
+
+        hash += length;
+
+        while (offset <= length - 8) {
+            hash ^= round(0, (long) LONG_LE.get(input, offset));
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+            offset += 8;
+        }
+        if (offset <= length - 4) {
+            hash ^= Integer.toUnsignedLong((int) INT_LE.get(input, offset)) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+            offset += 4;
+        }
+        while (offset < length) {
+            hash ^= (input[offset] & 0xFFL) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+            offset++;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME1;
+    }
+
+    private static long mergeRound(long hash, long value) {
+        hash ^= round(0, value);
+        return hash * PRIME1 + PRIME4;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        buffer.putInt(value != null ? value.length : -1);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+}
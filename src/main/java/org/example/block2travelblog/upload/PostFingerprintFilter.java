@@ -0,0 +1,142 @@
+package org.example.block2travelblog.upload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.projection.PostFingerprintRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over fingerprints of imported posts, checked before the fingerprint index.
+ * Fingerprint which is not in the filter belongs to a new post, so chunk of new posts
+ * is imported without looking up fingerprints in database.
+ * Built from database in background when application is ready and updated by imports of this instance,
+ * until the build is finished every fingerprint may be stored. Filter stays not ready when the build fails.
+ * Removed posts stay in the filter and only cost a lookup, posts imported by another instance
+ * are not in the filter and are caught by the unique index.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blog.upload.fingerprint-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class PostFingerprintFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final PostRepository postRepository;
+    private final int buildChunkSize;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private volatile boolean ready;
+
+    public PostFingerprintFilter(PostRepository postRepository,
+                                 @Value("${blog.upload.fingerprint-filter.expected-posts:1000000}") long expectedPosts,
+                                 @Value("${blog.search.index.build-chunk-size:1000}") int buildChunkSize) {
+        this.postRepository = postRepository;
+        this.buildChunkSize = buildChunkSize;
+
+        long optimalBits = (long) Math.ceil(-expectedPosts * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedPosts * Math.log(2)));
+    }
+
+    /**
+     * @return true when filter contains fingerprints of all stored posts
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Starts filter build in background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread builder = new Thread(this::build, "post-fingerprint-filter-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void build() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("Post fingerprint filter build failed, imports look up every fingerprint", e);
+        }
+    }
+
+    /**
+     * Loads fingerprints of stored posts in chunks ordered by id
+     */
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        long afterId = 0L;
+        long count = 0L;
+        List<PostFingerprintRow> rows;
+
+        do {
+            rows = postRepository.findFingerprintRowsAfter(afterId, Limit.of(buildChunkSize));
+            rows.forEach(row -> add(row.getFingerprint()));
+            count += rows.size();
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == buildChunkSize);
+
+        ready = true;
+        log.info("Post fingerprint filter built: {} fingerprints in {} ms", count, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Adds fingerprint of imported post
+     *
+     * @param fingerprint post fingerprint
+     */
+    public void add(long fingerprint) {
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(fingerprint, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Checks if post with the fingerprint may be stored
+     *
+     * @param fingerprint post fingerprint
+     * @return false if post with the fingerprint was never added, true if it may be stored or filter is not built yet
+     */
+    public boolean mightContain(long fingerprint) {
+        if (!ready) {
+            return true;
+        }
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(fingerprint, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Derives i-th bit position from two halves of the fingerprint, which is already well mixed
+     */
+    private long bitIndex(long fingerprint, int i) {
+        long combined = fingerprint + i * Long.rotateLeft(fingerprint, 32);
+        return (combined & Long.MAX_VALUE) % bitCount;
+    }
+}
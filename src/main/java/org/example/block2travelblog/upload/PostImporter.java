@@ -0,0 +1,304 @@
+package org.example.block2travelblog.upload;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.dto.UploadErrorDto;
+import org.example.block2travelblog.dto.UploadedPostsRestResponse;
+import org.example.block2travelblog.exception.ImportConflictException;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.upload.ingest.PostBulkWriter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Imports posts read from uploaded file in fixed-size chunks.
+ * Each chunk is saved in its own transaction and detached afterwards,
+ * so memory use does not depend on file size.
+ * Authors of chunk are checked with single query and attached as references without loading users.
+ * Posts are written by {@link PostBulkWriter} bypassing JPA, unless JPA engine is configured.
+ * Posts already stored by previous imports are skipped by their {@link PostFingerprint},
+ * fingerprints of chunk are checked with single query after {@link PostFingerprintFilter} if it is enabled.
+ */
+@Component
+public class PostImporter {
+
+    /**
+     * Unique index of post fingerprints.
+     */
+    private static final String FINGERPRINT_INDEX = "uk_post_fingerprint";
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final PostBulkWriter postBulkWriter;
+    private final ObjectProvider<PostFingerprintFilter> postFingerprintFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final boolean jpaEngine;
+    private final int maxReportedErrors;
+    private final PostRecordReaders.Limits readLimits;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PostImporter(PostRepository postRepository,
+                        UserRepository userRepository,
+                        PostBulkWriter postBulkWriter,
+                        ObjectProvider<PostFingerprintFilter> postFingerprintFilter,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${blog.upload.chunk-size:500}") int chunkSize,
+                        @Value("${blog.upload.engine:bulk}") String engine,
+                        @Value("${blog.upload.max-reported-errors:100}") int maxReportedErrors,
+                        @Value("${blog.upload.max-content-size:1GB}") DataSize maxContentSize,
+                        @Value("${blog.upload.max-line-length:1048576}") int maxLineLength) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.postBulkWriter = postBulkWriter;
+        this.postFingerprintFilter = postFingerprintFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.jpaEngine = "jpa".equals(engine);
+        this.maxReportedErrors = maxReportedErrors;
+        this.readLimits = new PostRecordReaders.Limits(maxContentSize.toBytes(), maxLineLength);
+    }
+
+    /**
+     * @return count of records saved in single transaction
+     */
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return limits of uploaded content, passed to {@link PostRecordReaders#open}
+     */
+    public PostRecordReaders.Limits getReadLimits() {
+        return readLimits;
+    }
+
+    /**
+     * Creates identity map of authors for single import
+     */
+    ImportAuthors newImportAuthors() {
+        return new ImportAuthors(userRepository);
+    }
+
+    /**
+     * Imports all records of the reader. Chunks saved before malformed part of file stay imported.
+     *
+     * @param reader source of post records
+     * @return number of successful, duplicate and failed saved posts with the first failed records
+     * @throws IllegalArgumentException if file syntax is malformed
+     */
+    public UploadedPostsRestResponse importPosts(PostRecordReader reader) {
+        int successfulCount = 0;
+        int duplicateCount = 0;
+        int failedCount = 0;
+        List<UploadErrorDto> errors = new ArrayList<>();
+        List<PostRecord> chunk = new ArrayList<>(chunkSize);
+        ImportAuthors authors = newImportAuthors();
+
+        try (reader) {
+            PostRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    ImportChunkResult result = saveChunkInTransaction(chunk, authors);
+                    successfulCount += result.imported();
+                    duplicateCount += result.duplicates();
+                    failedCount += result.failed().size();
+                    collectErrors(result, errors);
+                    chunk.clear();
+                }
+            }
+
+            ImportChunkResult result = saveChunkInTransaction(chunk, authors);
+            successfulCount += result.imported();
+            duplicateCount += result.duplicates();
+            failedCount += result.failed().size();
+            collectErrors(result, errors);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON file format: " + e.getMessage()
+                    + ". Posts uploaded before the error: " + successfulCount, e);
+        }
+
+        return new UploadedPostsRestResponse("Posts successfully uploaded from file: " + successfulCount,
+                "Posts uploading failed: " + failedCount,
+                duplicateCount,
+                authors.getUnknown(),
+                errors);
+    }
+
+    private void collectErrors(ImportChunkResult result, List<UploadErrorDto> errors) {
+        result.failed().stream()
+                .limit(maxReportedErrors - errors.size())
+                .map(record -> new UploadErrorDto(record.number(), record.error()))
+                .forEach(errors::add);
+    }
+
+    private ImportChunkResult saveChunkInTransaction(List<PostRecord> chunk, ImportAuthors authors) {
+        ImportChunkResult result = retryingDuplicates(useFingerprintFilter ->
+                transactionTemplate.execute(status -> saveChunk(chunk, authors, useFingerprintFilter)));
+        entityManager.clear();
+        return result;
+    }
+
+    /**
+     * Runs chunk transaction and runs it once more with fingerprints checked only in database
+     * if it inserted already stored post. It happens when concurrent import stored the same post
+     * after the check, or when the post was stored by another instance and is missing in the filter.
+     * Violations of other constraints are not retried.
+     *
+     * @param chunkTransaction chunk transaction, takes flag if fingerprint filter may be used
+     * @return result of the transaction
+     * @throws ImportConflictException if the chunk inserted already stored post once more
+     */
+    <T> T retryingDuplicates(Function<Boolean, T> chunkTransaction) {
+        try {
+            return chunkTransaction.apply(true);
+        } catch (DataIntegrityViolationException e) {
+            if (!isFingerprintConflict(e)) {
+                throw e;
+            }
+            entityManager.clear();
+        }
+
+        try {
+            return chunkTransaction.apply(false);
+        } catch (DataIntegrityViolationException e) {
+            if (!isFingerprintConflict(e)) {
+                throw e;
+            }
+            throw new ImportConflictException("Imported posts conflict with posts stored concurrently, retry the import", e);
+        }
+    }
+
+    /**
+     * Checks if exception is a violation of unique fingerprint index, its name is in the database error message
+     */
+    static boolean isFingerprintConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(FINGERPRINT_INDEX);
+    }
+
+    /**
+     * Saves valid records of chunk in the current transaction.
+     * Invalid records and posts of unknown authors are returned as failed,
+     * posts which are already stored or repeated in the chunk are skipped as duplicates.
+     *
+     * @param chunk records of chunk
+     * @param authors authors checked by the import
+     * @param useFingerprintFilter if fingerprints absent in the filter may be treated as new without query
+     * @return count of saved and duplicate posts and failed records
+     */
+    ImportChunkResult saveChunk(List<PostRecord> chunk, ImportAuthors authors, boolean useFingerprintFilter) {
+        List<PostRecord> failed = new ArrayList<>();
+        List<PostRecord> valid = new ArrayList<>(chunk.size());
+        for (PostRecord record : chunk) {
+            String error = record.isValid() ? validate(record.post()) : record.error();
+            if (error != null) {
+                failed.add(PostRecord.invalid(record.number(), error));
+            } else {
+                valid.add(record);
+            }
+        }
+
+        authors.resolve(valid.stream().map(record -> record.post().getUserId()).toList());
+
+        int duplicates = 0;
+        Map<Long, PostDto> posts = new LinkedHashMap<>();
+        for (PostRecord record : valid) {
+            if (!authors.isKnown(record.post().getUserId())) {
+                failed.add(PostRecord.invalid(record.number(), "User not found for id: " + record.post().getUserId()));
+            } else if (posts.putIfAbsent(PostFingerprint.of(record.post()), record.post()) != null) {
+                duplicates++;
+            }
+        }
+
+        List<Long> stored = findStoredFingerprints(posts.keySet(), useFingerprintFilter);
+        posts.keySet().removeAll(stored);
+        duplicates += stored.size();
+
+        if (jpaEngine) {
+            postRepository.saveAll(posts.entrySet().stream()
+                    .map(entry -> convertFromUpload(entry.getValue(), entry.getKey()))
+                    .toList());
+        } else {
+            postBulkWriter.insert(posts);
+        }
+
+        PostFingerprintFilter filter = postFingerprintFilter.getIfAvailable();
+        if (filter != null) {
+            posts.keySet().forEach(filter::add);
+        }
+
+        return new ImportChunkResult(posts.size(), duplicates, failed);
+    }
+
+    private List<Long> findStoredFingerprints(Collection<Long> fingerprints, boolean useFingerprintFilter) {
+        PostFingerprintFilter filter = useFingerprintFilter ? postFingerprintFilter.getIfAvailable() : null;
+        List<Long> candidates = filter != null
+                ? fingerprints.stream().filter(filter::mightContain).toList()
+                : List.copyOf(fingerprints);
+        return candidates.isEmpty() ? List.of() : postRepository.findExistingFingerprints(candidates);
+    }
+
+    private Post convertFromUpload(PostDto postDto, long fingerprint) {
+        Post post = new Post();
+
+        post.setTitle(postDto.getTitle());
+        post.setContent(postDto.getContent());
+        post.setCountry(postDto.getCountry());
+        post.setCategories(postDto.getCategories());
+        post.setCreatedAt(postDto.getCreatedAt());
+        post.setRating(postDto.getRating());
+        post.setUser(userRepository.getReferenceById(postDto.getUserId()));
+        post.setFingerprint(fingerprint);
+
+        return post;
+    }
+
+    /**
+     * @return reason why post can not be uploaded, null for valid post
+     */
+    private String validate(PostDto postDto) {
+        if (postDto.getTitle() == null || postDto.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (postDto.getContent() == null || postDto.getContent().length() < 10) {
+            return "content must be at least 10 characters";
+        }
+        if (postDto.getCountry() == null || postDto.getCountry().isBlank()) {
+            return "country is required";
+        }
+        if (postDto.getCategories() == null || postDto.getCategories().isEmpty()) {
+            return "at least one category is required";
+        }
+        if (postDto.getCreatedAt() == null) {
+            return "createdAt is required";
+        }
+        if (postDto.getRating() == null) {
+            return "rating is required";
+        }
+        if (postDto.getUserId() == null) {
+            return "userId is required";
+        }
+        return null;
+    }
+}
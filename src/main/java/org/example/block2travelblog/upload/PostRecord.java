@@ -0,0 +1,25 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.dto.PostDto;
+
+/**
+ * Single post record read from uploaded file.
+ *
+ * @param post parsed post, null when record can not be converted to post
+ * @param number number of record in file starting from 1
+ * @param error reason why record can not be converted, null for parsed post
+ */
+public record PostRecord(PostDto post, long number, String error) {
+
+    public static PostRecord valid(PostDto post, long number) {
+        return new PostRecord(post, number, null);
+    }
+
+    public static PostRecord invalid(long number, String error) {
+        return new PostRecord(null, number, error);
+    }
+
+    public boolean isValid() {
+        return post != null;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.block2travelblog.upload;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads post records from uploaded file one by one without loading whole file.
+ */
+public interface PostRecordReader extends Closeable {
+
+    /**
+     * Reads next record. Record which has valid syntax but can not be converted
+     * to post is returned as invalid and reading continues after it.
+     *
+     * @return next record or null when file is fully read
+     * @throws IOException if file can not be read or its syntax is malformed
+     */
+    PostRecord next() throws IOException;
+}
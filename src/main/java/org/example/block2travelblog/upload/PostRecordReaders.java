@@ -0,0 +1,152 @@
+package org.example.block2travelblog.upload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens reader matching format of uploaded file.
+ * Gzip compression is detected by magic bytes and decompressed while reading.
+ * JSON array and newline-delimited JSON are told apart by the first significant character,
+ * file name and content type are used only when content gives no hint.
+ * Content larger than the limit after decompression fails reading, so a small gzip bomb
+ * can not make the import run for an unbounded time.
+ */
+public final class PostRecordReaders {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+    private static final int MAX_LEADING_WHITESPACE = 4096;
+
+    private PostRecordReaders() {
+    }
+
+    /**
+     * Opens reader of uploaded posts
+     *
+     * @param objectMapper mapper used to convert records
+     * @param inputStream uploaded content, closed with the reader
+     * @param fileName original file name, may be null
+     * @param contentType content type of upload, may be null
+     * @param limits limits of content size and line length
+     * @return reader of JSON array or of newline-delimited JSON
+     * @throws IOException if content can not be read or gzip header is malformed
+     */
+    public static PostRecordReader open(ObjectMapper objectMapper, InputStream inputStream,
+                                        String fileName, String contentType, Limits limits) throws IOException {
+        InputStream content = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        try {
+            InputStream decompressed = isGzip(content) ? new GZIPInputStream(content, BUFFER_SIZE) : content;
+            content = new BufferedInputStream(new SizeLimitedInputStream(decompressed, limits.maxContentSize()), BUFFER_SIZE);
+
+            int firstChar = peekFirstSignificantByte(content);
+            boolean ndjson = firstChar == '{' || firstChar != '[' && isNdjsonHint(fileName, contentType);
+            return ndjson
+                    ? new NdjsonPostRecordReader(objectMapper, content, limits.maxLineLength())
+                    : new JsonArrayPostRecordReader(objectMapper, content);
+        } catch (IOException | RuntimeException e) {
+            content.close();
+            throw e;
+        }
+    }
+
+    private static boolean isGzip(InputStream content) throws IOException {
+        content.mark(2);
+        int first = content.read();
+        int second = content.read();
+        content.reset();
+        return first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND;
+    }
+
+    /**
+     * @return first byte which is not whitespace or UTF-8 byte order mark, -1 if there is none
+     */
+    private static int peekFirstSignificantByte(InputStream content) throws IOException {
+        content.mark(MAX_LEADING_WHITESPACE);
+        try {
+            for (int i = 0; i < MAX_LEADING_WHITESPACE; i++) {
+                int b = content.read();
+                if (b == -1 || !Character.isWhitespace(b) && b != 0xef && b != 0xbb && b != 0xbf) {
+                    return b;
+                }
+            }
+            return -1;
+        } finally {
+            content.reset();
+        }
+    }
+
+    private static boolean isNdjsonHint(String fileName, String contentType) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        return name.endsWith(".ndjson") || name.endsWith(".ndjson.gz")
+                || name.endsWith(".jsonl") || name.endsWith(".jsonl.gz")
+                || type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl");
+    }
+
+    /**
+     * Limits of uploaded content.
+     *
+     * @param maxContentSize max count of bytes after decompression
+     * @param maxLineLength max count of characters in a line of newline-delimited JSON
+     */
+    public record Limits(long maxContentSize, int maxLineLength) {
+    }
+
+    /**
+     * Fails reading when more bytes than the limit are read.
+     */
+    private static class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long size;
+
+        SizeLimitedInputStream(InputStream inputStream, long maxSize) {
+            super(inputStream);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long read) throws IOException {
+            size += read;
+            if (size > maxSize) {
+                throw new IOException("Uploaded content is larger than " + maxSize + " bytes after decompression");
+            }
+        }
+    }
+}
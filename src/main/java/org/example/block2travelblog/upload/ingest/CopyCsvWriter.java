@@ -0,0 +1,37 @@
+package org.example.block2travelblog.upload.ingest;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows of PostgreSQL COPY in CSV format.
+ * Null is written as unquoted empty value, which COPY reads as NULL,
+ * other values are always quoted, so empty string stays empty string.
+ * Quotes are doubled, backslashes and line breaks need no escaping inside quotes.
+ */
+final class CopyCsvWriter {
+
+    private CopyCsvWriter() {
+    }
+
+    /**
+     * Writes single CSV line
+     *
+     * @param writer target writer
+     * @param values column values, written with toString
+     * @throws IOException if writer fails
+     */
+    static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write('"');
+                writer.write(values[i].toString().replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.write('\n');
+    }
+}
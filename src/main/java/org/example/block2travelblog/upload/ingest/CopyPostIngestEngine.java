@@ -0,0 +1,67 @@
+package org.example.block2travelblog.upload.ingest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams post rows to PostgreSQL with COPY in CSV format written by {@link CopyCsvWriter}.
+ */
+public class CopyPostIngestEngine implements PostIngestEngine {
+
+    private static final String COPY_POSTS = "COPY posts (" + POSTS_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_CATEGORIES = "COPY post_categories (" + CATEGORIES_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    @Override
+    public List<Long> allocateIdBlocks(Connection connection, int blocks) throws SQLException {
+        List<Long> firstIds = new ArrayList<>(blocks);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT nextval('posts_seq') FROM generate_series(1, ?)")) {
+            statement.setInt(1, blocks);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    firstIds.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return firstIds;
+    }
+
+    @Override
+    public void insert(Connection connection, List<PostIngestRow> rows) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try {
+            try (Writer writer = copyWriter(pgConnection, COPY_POSTS)) {
+                for (PostIngestRow row : rows) {
+                    CopyCsvWriter.writeRow(writer, row.id(), row.title(), row.content(), row.teaser(), row.country(),
+                            row.createdAt(), row.rating(), row.userId(), 0, row.updatedAt().atOffset(ZoneOffset.UTC),
+                            row.fingerprint());
+                }
+            }
+            try (Writer writer = copyWriter(pgConnection, COPY_CATEGORIES)) {
+                for (PostIngestRow row : rows) {
+                    for (int i = 0; i < row.categories().size(); i++) {
+                        CopyCsvWriter.writeRow(writer, row.id(), i, row.categories().get(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Failed to copy posts", e);
+        }
+    }
+
+    private static Writer copyWriter(PGConnection connection, String sql) throws SQLException {
+        return new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(connection, sql), StandardCharsets.UTF_8));
+    }
+}
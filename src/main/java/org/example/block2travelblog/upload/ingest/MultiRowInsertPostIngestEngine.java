@@ -0,0 +1,97 @@
+package org.example.block2travelblog.upload.ingest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes post rows with multi-row INSERT statements, used for databases without COPY.
+ */
+public class MultiRowInsertPostIngestEngine implements PostIngestEngine {
+
+    private static final int POSTS_PER_STATEMENT = 100;
+    private static final int CATEGORIES_PER_STATEMENT = 300;
+
+    private final String nextIdSql;
+
+    /**
+     * @param nextIdSql query returning next value of posts sequence in database dialect
+     */
+    public MultiRowInsertPostIngestEngine(String nextIdSql) {
+        this.nextIdSql = nextIdSql;
+    }
+
+    @Override
+    public List<Long> allocateIdBlocks(Connection connection, int blocks) throws SQLException {
+        List<Long> firstIds = new ArrayList<>(blocks);
+        try (PreparedStatement statement = connection.prepareStatement(nextIdSql)) {
+            for (int i = 0; i < blocks; i++) {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    firstIds.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return firstIds;
+    }
+
+    @Override
+    public void insert(Connection connection, List<PostIngestRow> rows) throws SQLException {
+        for (int from = 0; from < rows.size(); from += POSTS_PER_STATEMENT) {
+            List<PostIngestRow> group = rows.subList(from, Math.min(from + POSTS_PER_STATEMENT, rows.size()));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    insertSql("posts", POSTS_COLUMNS, 11, group.size()))) {
+                int index = 1;
+                for (PostIngestRow row : group) {
+                    statement.setLong(index++, row.id());
+                    statement.setString(index++, row.title());
+                    statement.setString(index++, row.content());
+                    statement.setString(index++, row.teaser());
+                    statement.setString(index++, row.country());
+                    statement.setObject(index++, row.createdAt());
+                    if (row.rating() != null) {
+                        statement.setDouble(index++, row.rating());
+                    } else {
+                        statement.setNull(index++, Types.DOUBLE);
+                    }
+                    statement.setLong(index++, row.userId());
+                    statement.setLong(index++, 0L);
+                    statement.setTimestamp(index++, Timestamp.from(row.updatedAt()));
+                    statement.setLong(index++, row.fingerprint());
+                }
+                statement.executeUpdate();
+            }
+        }
+
+        List<Object[]> categories = new ArrayList<>();
+        for (PostIngestRow row : rows) {
+            for (int i = 0; i < row.categories().size(); i++) {
+                categories.add(new Object[]{row.id(), i, row.categories().get(i)});
+            }
+        }
+        for (int from = 0; from < categories.size(); from += CATEGORIES_PER_STATEMENT) {
+            List<Object[]> group = categories.subList(from, Math.min(from + CATEGORIES_PER_STATEMENT, categories.size()));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    insertSql("post_categories", CATEGORIES_COLUMNS, 3, group.size()))) {
+                int index = 1;
+                for (Object[] category : group) {
+                    statement.setLong(index++, (Long) category[0]);
+                    statement.setInt(index++, (Integer) category[1]);
+                    statement.setString(index++, (String) category[2]);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static String insertSql(String table, String columns, int columnCount, int rowCount) {
+        String row = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        return "INSERT INTO " + table + " (" + columns + ") VALUES " + String.join(", ", Collections.nCopies(rowCount, row));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.block2travelblog.upload.ingest;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.event.PostChangeTracker;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts uploaded posts directly with the fastest engine supported by the datasource:
+ * COPY for PostgreSQL and multi-row INSERT otherwise.
+ * Post ids are allocated from posts sequence before insert, so category rows can reference their posts.
+ * Runs in the current transaction, inserted posts are published as created after commit.
+ */
+@Slf4j
+@Component
+public class PostBulkWriter {
+
+    private final DataSource dataSource;
+    private final PostChangeTracker postChangeTracker;
+    private final PostIngestEngine engine;
+
+    public PostBulkWriter(DataSource dataSource,
+                          EntityManagerFactory entityManagerFactory,
+                          PostChangeTracker postChangeTracker) throws MetaDataAccessException {
+        this.dataSource = dataSource;
+        this.postChangeTracker = postChangeTracker;
+
+        String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(databaseName)) {
+            this.engine = new CopyPostIngestEngine();
+        } else {
+            String nextIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect()
+                    .getSequenceSupport()
+                    .getSequenceNextValString("posts_seq");
+            this.engine = new MultiRowInsertPostIngestEngine(nextIdSql);
+        }
+        log.info("Bulk post import uses {} for {}", engine.getClass().getSimpleName(), databaseName);
+    }
+
+    /**
+     * Inserts posts in the current transaction
+     *
+     * @param postsByFingerprint validated posts of existing authors keyed by their fingerprints
+     * @return count of inserted posts
+     */
+    public int insert(Map<Long, PostDto> postsByFingerprint) {
+        if (postsByFingerprint.isEmpty()) {
+            return 0;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            int blocks = (postsByFingerprint.size() + Post.ID_ALLOCATION_SIZE - 1) / Post.ID_ALLOCATION_SIZE;
+            List<Long> firstIds = engine.allocateIdBlocks(connection, blocks);
+
+            Instant now = Instant.now();
+            List<PostIngestRow> rows = new ArrayList<>(postsByFingerprint.size());
+            for (Map.Entry<Long, PostDto> entry : postsByFingerprint.entrySet()) {
+                int i = rows.size();
+                long id = firstIds.get(i / Post.ID_ALLOCATION_SIZE) + i % Post.ID_ALLOCATION_SIZE;
+                rows.add(PostIngestRow.of(id, entry.getValue(), entry.getKey(), now));
+            }
+
+            engine.insert(connection, rows);
+            postChangeTracker.onBulkInsert(rows.stream().map(PostIngestRow::toSnapshot).toList());
+            return rows.size();
+        } catch (SQLException e) {
+            throw new SQLStateSQLExceptionTranslator().translate("Bulk post insert", null, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
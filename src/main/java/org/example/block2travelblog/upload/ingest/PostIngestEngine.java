@@ -0,0 +1,34 @@
+package org.example.block2travelblog.upload.ingest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes post rows directly to database bypassing JPA.
+ */
+public interface PostIngestEngine {
+
+    String POSTS_COLUMNS = "id, title, content, teaser, country, created_at, rating, user_id, version, updated_at, fingerprint";
+    String CATEGORIES_COLUMNS = "post_id, category_order, categories";
+
+    /**
+     * Allocates blocks of post ids from posts sequence, each value starts block of
+     * {@link org.example.block2travelblog.data.Post#ID_ALLOCATION_SIZE} ids like pooled-lo optimizer of Hibernate
+     *
+     * @param connection connection of the current transaction
+     * @param blocks count of blocks
+     * @return first ids of allocated blocks
+     * @throws SQLException if sequence can not be read
+     */
+    List<Long> allocateIdBlocks(Connection connection, int blocks) throws SQLException;
+
+    /**
+     * Inserts posts and their categories
+     *
+     * @param connection connection of the current transaction
+     * @param rows posts with allocated ids
+     * @throws SQLException if rows can not be inserted
+     */
+    void insert(Connection connection, List<PostIngestRow> rows) throws SQLException;
+}
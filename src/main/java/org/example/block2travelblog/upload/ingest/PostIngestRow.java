@@ -0,0 +1,70 @@
+package org.example.block2travelblog.upload.ingest;
+
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.event.PostSnapshot;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Post row with pre-allocated id, written directly to posts and post_categories tables.
+ *
+ * @param id pre-allocated post id
+ * @param title post title
+ * @param content post content
+ * @param teaser beginning of content
+ * @param country post country
+ * @param categories post categories in stored order
+ * @param createdAt creation date
+ * @param rating post rating
+ * @param userId author id
+ * @param updatedAt time of the write
+ * @param fingerprint content fingerprint of the post
+ */
+public record PostIngestRow(
+        Long id,
+        String title,
+        String content,
+        String teaser,
+        String country,
+        List<String> categories,
+        LocalDate createdAt,
+        Double rating,
+        Long userId,
+        Instant updatedAt,
+        long fingerprint
+) {
+
+    /**
+     * Creates row of uploaded post
+     *
+     * @param id pre-allocated post id
+     * @param postDto validated uploaded post
+     * @param fingerprint content fingerprint of the post
+     * @param updatedAt time of the write
+     * @return post row
+     */
+    public static PostIngestRow of(Long id, PostDto postDto, long fingerprint, Instant updatedAt) {
+        return new PostIngestRow(
+                id,
+                postDto.getTitle(),
+                postDto.getContent(),
+                Post.teaserOf(postDto.getContent()),
+                postDto.getCountry(),
+                postDto.getCategories(),
+                postDto.getCreatedAt(),
+                postDto.getRating(),
+                postDto.getUserId(),
+                updatedAt,
+                fingerprint);
+    }
+
+    /**
+     * @return snapshot of inserted post for change tracking
+     */
+    public PostSnapshot toSnapshot() {
+        return new PostSnapshot(id, title, content, country, List.copyOf(categories), createdAt, rating, userId);
+    }
+}
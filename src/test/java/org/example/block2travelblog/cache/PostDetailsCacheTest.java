@@ -0,0 +1,82 @@
+package org.example.block2travelblog.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.block2travelblog.dto.ExtendedPostDto;
+import org.example.block2travelblog.dto.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostDetailsCacheTest {
+
+    private final PostDetailsCache cache = new PostDetailsCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void get_loadedPostIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> post(id, loads.incrementAndGet() + ""));
+        ExtendedPostDto post = cache.get(1L, id -> post(id, loads.incrementAndGet() + ""));
+
+        assertThat(post.getAuthor().getName()).isEqualTo("1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidateByAuthor_removesCachedPostsOfAuthor() {
+        cache.get(1L, id -> post(id, "Marusia"));
+
+        cache.invalidateByAuthor(10L);
+
+        assertThat(cache.get(1L, id -> post(id, "Ivanko")).getAuthor().getName()).isEqualTo("Ivanko");
+    }
+
+    @Test
+    void invalidateByAuthor_rejectsPostLoadedBeforeInvalidation() throws Exception {
+        AtomicReference<String> storedAuthorName = new AtomicReference<>("Marusia");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<ExtendedPostDto> load = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            String authorName = storedAuthorName.get();
+            if (loads.incrementAndGet() == 1) {
+                loading.countDown();
+                await(invalidated);
+            }
+            return post(id, authorName);
+        }));
+
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        storedAuthorName.set("Ivanko");
+        cache.invalidateByAuthor(10L);
+        invalidated.countDown();
+
+        // post read before the author update is loaded again
+        assertThat(load.get(5, TimeUnit.SECONDS).getAuthor().getName()).isEqualTo("Ivanko");
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get(1L, id -> post(id, "not loaded")).getAuthor().getName()).isEqualTo("Ivanko");
+    }
+
+    private static ExtendedPostDto post(Long id, String authorName) {
+        ExtendedPostDto post = new ExtendedPostDto();
+        post.setId(id);
+        post.setVersion(0L);
+        post.setAuthor(new UserDto(10L, authorName, "author@test.com"));
+        return post;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.block2travelblog.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.block2travelblog.dto.FilteredPostResponse;
+import org.example.block2travelblog.dto.PostQueryDto;
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchCacheTest {
+
+    private final PostSearchCache cache = new PostSearchCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_repeatedSearchIsNotLoadedAgain() {
+        PostSearchKey key = key(query -> query.setCountry("Ukraine"));
+
+        cache.get(key, this::load);
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void onPostChanged_evictsOnlyAffectedPages() {
+        Map<String, PostSearchKey> keys = Map.of(
+                "previous country", key(query -> query.setCountry("Ukraine")),
+                "current country", key(query -> query.setCountry("Canada")),
+                "other country", key(query -> query.setCountry("Poland")),
+                "category", key(query -> query.setCategory("travel")),
+                "other category", key(query -> query.setCategory("food")),
+                "other user", key(query -> query.setUserId(2L)),
+                "newer posts", key(query -> query.setCreatedAfter(LocalDate.now())),
+                "no filter", key(query -> { }));
+        keys.values().forEach(key -> cache.get(key, this::load));
+
+        PostSnapshot previous = post("Ukraine");
+        PostSnapshot current = post("Canada");
+        cache.onPostChanged(new PostChangedEvent(List.of(new PostChange(previous, current))));
+
+        assertThat(keys).allSatisfy((name, key) -> {
+            int loadsBefore = loads.get();
+            cache.get(key, this::load);
+            boolean evicted = loads.get() > loadsBefore;
+            assertThat(evicted).as(name)
+                    .isEqualTo(List.of("previous country", "current country", "category", "no filter").contains(name));
+        });
+    }
+
+    @Test
+    void get_pageLoadedDuringChangeIsNotCached() {
+        PostSearchKey key = key(query -> query.setCountry("Ukraine"));
+
+        cache.get(key, () -> {
+            cache.onPostChanged(new PostChangedEvent(List.of(new PostChange(null, post("Poland")))));
+            return load();
+        });
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private FilteredPostResponse load() {
+        loads.incrementAndGet();
+        return new FilteredPostResponse(List.of(), 0, 0L, null);
+    }
+
+    private static PostSearchKey key(Consumer<PostQueryDto> filter) {
+        PostQueryDto postQueryDto = new PostQueryDto();
+        postQueryDto.setSize(10);
+        filter.accept(postQueryDto);
+        return PostSearchKey.of(postQueryDto);
+    }
+
+    private static PostSnapshot post(String country) {
+        return new PostSnapshot(1L, null, null, country, List.of("travel"), LocalDate.now().minusDays(1), 0.0, 1L);
+    }
+}
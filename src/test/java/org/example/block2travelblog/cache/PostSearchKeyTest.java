@@ -0,0 +1,36 @@
+package org.example.block2travelblog.cache;
+
+import org.example.block2travelblog.dto.PostQueryDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchKeyTest {
+
+    @Test
+    void of_sameKeyForTextsWithSameTerms() {
+        PostSearchKey key = PostSearchKey.of(query("Old town  Lviv"));
+
+        assertThat(PostSearchKey.of(query("lviv, OLD town"))).isEqualTo(key);
+        assertThat(PostSearchKey.of(query("town old lviv lviv"))).isEqualTo(key);
+        assertThat(key.terms()).containsExactly("lviv", "old", "town");
+    }
+
+    @Test
+    void of_differentKeyForDifferentTerms() {
+        assertThat(PostSearchKey.of(query("old town"))).isNotEqualTo(PostSearchKey.of(query("old city")));
+    }
+
+    @Test
+    void of_noTermsForBlankText() {
+        assertThat(PostSearchKey.of(query("  ")).terms()).isNull();
+        assertThat(PostSearchKey.of(query(null))).isEqualTo(PostSearchKey.of(query(" ")));
+    }
+
+    private static PostQueryDto query(String text) {
+        PostQueryDto postQueryDto = new PostQueryDto();
+        postQueryDto.setText(text);
+        postQueryDto.setSize(10);
+        return postQueryDto;
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.block2travelblog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.ImportJob;
+import org.example.block2travelblog.data.ImportJobStatus;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.dto.ImportJobDto;
+import org.example.block2travelblog.dto.UploadErrorDto;
+import org.example.block2travelblog.repository.ImportJobRepository;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = Block2TravelBlogApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportJobControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    ImportJobRepository importJobRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private int nextPostNumber;
+
+    @BeforeEach
+    void beforeEach() {
+        afterEach();
+    }
+
+    @AfterEach
+    void afterEach() {
+        importJobRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void submit_importedInBackgroundWithErrors() throws Exception {
+        User user = saveUserInTestDb();
+        List<String> records = new ArrayList<>(posts(user, 2));
+        records.add("{\"rating\": \"high\"}");
+        records.addAll(posts(user, 3));
+        records.add(postJson(999L, nextPostNumber++));
+
+        ImportJobDto job = submit(jsonArray(records));
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.QUEUED);
+
+        ImportJobDto finished = waitForJob(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.getImportedCount()).isEqualTo(5);
+        assertThat(finished.getFailedCount()).isEqualTo(2);
+        assertThat(finished.getCommittedChunks()).isEqualTo(4);
+        assertThat(postRepository.count()).isEqualTo(5);
+
+        MvcResult mvcResult = mvc.perform(get("/api/post/import-jobs/{id}/errors", job.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<UploadErrorDto> errors = Arrays.asList(parseResponse(mvcResult, UploadErrorDto[].class));
+        assertThat(errors).extracting(UploadErrorDto::getRecordNumber).containsExactly(3L, 7L);
+        assertThat(errors.get(1).getMessage()).contains("999");
+    }
+
+    @Test
+    void resume_skipsCommittedChunks() throws Exception {
+        User user = saveUserInTestDb();
+        List<String> records = posts(user, 6);
+
+        String truncated = "[" + String.join(",", records.subList(0, 4)) + ", {\"title\": ";
+        ImportJobDto failed = waitForJob(submit(truncated).getId());
+        assertThat(failed.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).startsWith("Invalid JSON file format");
+        assertThat(failed.getImportedCount()).isEqualTo(4);
+
+        Path spoolPath = Path.of(importJobRepository.findById(failed.getId()).get().getSpoolPath());
+        Files.writeString(spoolPath, jsonArray(records));
+
+        mvc.perform(post("/api/post/import-jobs/{id}/resume", failed.getId()))
+                .andExpect(status().isAccepted());
+
+        ImportJobDto resumed = waitForJob(failed.getId());
+        assertThat(resumed.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(resumed.getImportedCount()).isEqualTo(6);
+        assertThat(resumed.getCommittedChunks()).isEqualTo(3);
+        assertThat(postRepository.count()).isEqualTo(6);
+        assertThat(Files.exists(spoolPath)).isFalse();
+    }
+
+    @Test
+    void resume_notFailedJob() throws Exception {
+        User user = saveUserInTestDb();
+        ImportJobDto job = waitForJob(submit(jsonArray(posts(user, 1))).getId());
+
+        mvc.perform(post("/api/post/import-jobs/{id}/resume", job.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void claim_queuedOrStaleRunningJobOnly() {
+        ImportJob job = new ImportJob();
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setChunkSize(2);
+        job.setCreatedAt(Instant.now());
+        Long id = importJobRepository.save(job).getId();
+
+        Instant now = Instant.now();
+        assertThat(claim(id, now, now.minusSeconds(300))).isEqualTo(1);
+        assertThat(claim(id, now, now.minusSeconds(300))).isZero();
+        assertThat(claim(id, now.plusSeconds(600), now.plusSeconds(300))).isEqualTo(1);
+        assertThat(importJobRepository.findById(id).get().getStatus()).isEqualTo(ImportJobStatus.RUNNING);
+    }
+
+    @Test
+    void resume_deletedSpoolFile() throws Exception {
+        User user = saveUserInTestDb();
+        ImportJobDto failed = waitForJob(submit("[" + postJson(user.getId(), nextPostNumber++) + ", {").getId());
+        assertThat(failed.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+
+        ImportJob job = importJobRepository.findById(failed.getId()).get();
+        job.setSpoolPath(null);
+        importJobRepository.save(job);
+
+        mvc.perform(post("/api/post/import-jobs/{id}/resume", failed.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getJob_notFound() throws Exception {
+        mvc.perform(get("/api/post/import-jobs/{id}", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImportJobDto submit(String json) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "posts.json", "application/json", json.getBytes());
+
+        MvcResult mvcResult = mvc.perform(multipart("/api/post/import-jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return parseResponse(mvcResult, ImportJobDto.class);
+    }
+
+    private int claim(Long id, Instant now, Instant staleBefore) {
+        return transactionTemplate.execute(status -> importJobRepository.claim(id, now, staleBefore));
+    }
+
+    private ImportJobDto waitForJob(Long id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            MvcResult mvcResult = mvc.perform(get("/api/post/import-jobs/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ImportJobDto job = parseResponse(mvcResult, ImportJobDto.class);
+            if (job.getStatus() == ImportJobStatus.COMPLETED || job.getStatus() == ImportJobStatus.FAILED) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("import job timed out").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private List<String> posts(User user, int count) {
+        List<String> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(postJson(user.getId(), nextPostNumber++));
+        }
+        return posts;
+    }
+
+    private static String postJson(Long userId, int number) {
+        return """
+            {
+                "title": "Test Title %d",
+                "content": "Test Content",
+                "country": "Ukraine",
+                "categories": ["city"],
+                "createdAt": "2025-12-01",
+                "rating": 4.0,
+                "userId": %d
+            }
+            """.formatted(number, userId);
+    }
+
+    private static String jsonArray(List<String> records) {
+        return "[" + String.join(",", records) + "]";
+    }
+
+    private <T>T parseResponse(MvcResult mvcResult, Class<T> c) {
+        try {
+            return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), c);
+        } catch (JsonProcessingException | UnsupportedEncodingException e) {
+            throw new RuntimeException("Error parsing json", e);
+        }
+    }
+
+    private User saveUserInTestDb(){
+        User user = new User();
+        user.setName("Marusia");
+        user.setEmail("marusia@test.com");
+        user.setPassword("12345678");
+        return userRepository.save(user);
+    }
+}
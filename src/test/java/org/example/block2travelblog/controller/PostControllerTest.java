@@ -2,22 +2,43 @@ package org.example.block2travelblog.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.OutboxEvent;
 import org.example.block2travelblog.data.Post;
 import org.example.block2travelblog.data.User;
 import org.example.block2travelblog.dto.*;
+import org.example.block2travelblog.index.PostBitmapIndex;
+import org.example.block2travelblog.index.PostTextIndex;
+import org.example.block2travelblog.messaging.EmailMessage;
+import org.example.block2travelblog.outbox.OutboxRelay;
+import org.example.block2travelblog.report.PostExportLimiter;
+import org.example.block2travelblog.repository.OutboxEventRepository;
 import org.example.block2travelblog.repository.PostRepository;
 import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.repository.specification.PostSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
@@ -26,9 +47,17 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -39,6 +68,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         classes = Block2TravelBlogApplication.class)
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
+@Import(PostControllerTest.RabbitTestConfiguration.class)
 class PostControllerTest {
 
     @Autowired
@@ -53,11 +83,85 @@ class PostControllerTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    PostExportLimiter postExportLimiter;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    InMemoryRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    ObjectProvider<PostBitmapIndex> postBitmapIndex;
+
+    @Autowired
+    ObjectProvider<PostTextIndex> postTextIndex;
+
+    /**
+     * Replaces broker with in-memory template which confirms or rejects every message.
+     */
+    @TestConfiguration
+    static class RabbitTestConfiguration {
+
+        @Bean
+        @Primary
+        InMemoryRabbitTemplate inMemoryRabbitTemplate(ConnectionFactory connectionFactory) {
+            return new InMemoryRabbitTemplate(connectionFactory);
+        }
+    }
+
+    static class InMemoryRabbitTemplate extends RabbitTemplate {
+
+        final List<EmailMessage> sentMessages = new CopyOnWriteArrayList<>();
+        volatile boolean acknowledge = true;
+
+        InMemoryRabbitTemplate(ConnectionFactory connectionFactory) {
+            super(connectionFactory);
+        }
+
+        @Override
+        public <T> T invoke(OperationsCallback<T> action) {
+            return action.doInRabbit(this);
+        }
+
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object message,
+                                   MessagePostProcessor messagePostProcessor, CorrelationData correlationData) {
+            sentMessages.add((EmailMessage) message);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(acknowledge, acknowledge ? null : "rejected"));
+        }
+    }
+
     @AfterEach
     void afterEach() {
+        outboxEventRepository.deleteAll();
         userRepository.deleteAll();
     }
 
+    /**
+     * Waits for background index builds, so searches run on index when it is enabled and on database otherwise.
+     */
+    @BeforeEach
+    void awaitIndexes() {
+        long deadline = System.currentTimeMillis() + 5000;
+        postBitmapIndex.ifAvailable(index -> awaitReady(index::isReady, deadline));
+        postTextIndex.ifAvailable(index -> awaitReady(index::isReady, deadline));
+    }
+
+    private static void awaitReady(BooleanSupplier ready, long deadline) {
+        while (!ready.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("index build timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
     @Test
     void savePost_success() throws Exception {
         User user = saveUserInTestDb();
@@ -90,6 +194,48 @@ class PostControllerTest {
         assertThat(postDto.getCreatedAt()).isEqualTo(LocalDate.now());
     }
 
+    @Test
+    void savePost_notificationRelayedFromOutbox() throws Exception {
+        User user = saveUserInTestDb();
+        rabbitTemplate.sentMessages.clear();
+
+        String body = """
+           {
+                "title": "Relayed Title",
+                "content": "Test Content",
+                "country": "Ukraine",
+                "categories": ["travel"],
+                "userId": %d
+            }
+            """.formatted(user.getId());
+
+        mvc.perform(post("/api/post")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        assertThat(rabbitTemplate.sentMessages).isEmpty();
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+        rabbitTemplate.acknowledge = false;
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(outboxEventRepository.findAll()).singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isEqualTo(1));
+
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        event.setNextAttemptAt(Instant.now());
+        outboxEventRepository.save(event);
+        rabbitTemplate.acknowledge = true;
+        rabbitTemplate.sentMessages.clear();
+
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(rabbitTemplate.sentMessages).singleElement().satisfies(message -> {
+            assertThat(message.getContent()).contains("Relayed Title");
+            assertThat(message.getRecipientsEmails()).containsExactly("marusia@test.com");
+        });
+    }
+
     @Test
     void savePost_validation() throws Exception {
         String body = """
@@ -155,6 +301,127 @@ class PostControllerTest {
         assertThat(extendedPostDto.getAuthor().getEmail()).isEqualTo("marusia@test.com");
     }
 
+    @Test
+    void getPostById_constantStatementCount() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+
+        mvc.perform(get("/api/post/{id}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[1]").value("city"))
+                .andExpect(jsonPath("$.author.name").value("Marusia"));
+
+        // post with author and categories
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        mvc.perform(get("/api/post/{id}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // post is cached
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void getPostById_cachedPostInvalidatedByUpdates() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        mvc.perform(get("/api/post/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Test Title"))
+                .andExpect(jsonPath("$.author.name").value("Marusia"));
+
+        String postBody = """
+            {
+                "title": "Updated title",
+                "content": "Updated Content",
+                "country": "Canada",
+                "categories": ["photography"],
+                "userId": %d
+            }
+        """.formatted(user.getId());
+        mvc.perform(put("/api/post/{id}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(postBody))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/post/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Updated title"));
+
+        String userBody = """
+            {
+                "name": "Ivanko",
+                "email": "ivanko@test.com",
+                "password": "12345678"
+            }
+        """;
+        mvc.perform(put("/api/user/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(userBody))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/api/post/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name").value("Ivanko"));
+
+        mvc.perform(delete("/api/post/{id}", post.getId()))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/api/post/{id}", post.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPostById_notModified() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        MvcResult mvcResult = mvc.perform(get("/api/post/{id}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+        mvc.perform(get("/api/post/{id}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        mvc.perform(put("/api/user/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {"name": "Ivanko", "email": "marusia@test.com", "password": "12345678"}
+                            """))
+                .andExpect(status().isOk());
+        mvcResult = mvc.perform(get("/api/post/{id}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name").value("Ivanko"))
+                .andReturn();
+        eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+
+        Post storedPost = postRepository.findById(post.getId()).orElseThrow();
+        storedPost.setTitle("Updated title");
+        postRepository.save(storedPost);
+
+        mvc.perform(get("/api/post/{id}", post.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Updated title"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
     @Test
     void getPostById_notFound() throws Exception {
 
@@ -324,6 +591,404 @@ class PostControllerTest {
         assertThat(response.getTotalElements()).isEqualTo(0);
     }
 
+    @Test
+    void testGetPostPage_keysetPagination() throws Exception {
+        User user = saveUserInTestDb();
+        Post post1 = savePostInTestDb(user);
+        Post post2 = savePostInTestDb(user);
+        Post post3 = savePostInTestDb(user);
+
+        String firstPageBody = """
+            {
+                "country": "Ukraine",
+                "size": 2,
+                "cursor": ""
+            }
+        """;
+
+        MvcResult firstPageResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(firstPageBody))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse firstPage = parseResponse(firstPageResult, FilteredPostResponse.class);
+        assertThat(firstPage.getList()).extracting(PostDto::getId).containsExactly(post3.getId(), post2.getId());
+        assertThat(firstPage.getTotalElements()).isNull();
+        assertThat(firstPage.getNextCursor()).isNotBlank();
+
+        String secondPageBody = """
+            {
+                "country": "Ukraine",
+                "size": 2,
+                "cursor": "%s"
+            }
+        """.formatted(firstPage.getNextCursor());
+
+        MvcResult secondPageResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(secondPageBody))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse secondPage = parseResponse(secondPageResult, FilteredPostResponse.class);
+        assertThat(secondPage.getList()).extracting(PostDto::getId).containsExactly(post1.getId());
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testGetPostPage_combinedFilters() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        Post oldPost = savePostInTestDb(user);
+        oldPost.setCreatedAt(LocalDate.now().minusDays(10));
+        postRepository.save(oldPost);
+
+        Post lowRatedPost = savePostInTestDb(user);
+        lowRatedPost.setRating(-1.0);
+        postRepository.save(lowRatedPost);
+
+        String body = """
+            {
+                "category": "city",
+                "createdAfter": "%s",
+                "minRating": 0.0,
+                "userId": %d,
+                "size": 10,
+                "from": 0
+            }
+        """.formatted(LocalDate.now().minusDays(1), user.getId());
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse response = parseResponse(mvcResult, FilteredPostResponse.class);
+        assertThat(response.getList()).extracting(PostDto::getId).containsExactly(post.getId());
+        assertThat(response.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetPostPage_textSearch() throws Exception {
+        User user = saveUserInTestDb();
+
+        Post contentMatch = savePostInTestDb(user);
+        contentMatch.setContent("Evening walk through old Kyiv streets");
+        postRepository.save(contentMatch);
+
+        Post titleMatch = savePostInTestDb(user);
+        titleMatch.setTitle("Kyiv in autumn");
+        titleMatch.setContent("Old streets and golden parks of Kyiv");
+        postRepository.save(titleMatch);
+
+        Post otherCountry = savePostInTestDb(user);
+        otherCountry.setCountry("Poland");
+        otherCountry.setContent("Old streets of Kyiv and Lviv");
+        postRepository.save(otherCountry);
+
+        savePostInTestDb(user);
+
+        String body = """
+            {
+                "country": "Ukraine",
+                "text": "kyiv STREETS",
+                "size": 10,
+                "from": 0
+            }
+        """;
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse response = parseResponse(mvcResult, FilteredPostResponse.class);
+        assertThat(response.getList()).extracting(PostDto::getId)
+                .containsExactly(titleMatch.getId(), contentMatch.getId());
+        assertThat(response.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetPostPage_textSearchWithoutTermsMatchesNoPosts() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+        post.setContent("A walk in a park");
+        postRepository.save(post);
+
+        String body = """
+            {
+                "text": "a !",
+                "size": 10,
+                "from": 0
+            }
+        """;
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse response = parseResponse(mvcResult, FilteredPostResponse.class);
+        assertThat(response.getList()).isEmpty();
+        assertThat(response.getTotalElements()).isZero();
+        assertThat(postRepository.count(PostSpecifications.containsText(List.of()))).isZero();
+    }
+
+    @Test
+    void testGetPostPage_cachedPageInvalidatedByUpdate() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        String listBody = """
+            {
+                "country": "Ukraine",
+                "size": 10,
+                "from": 0
+            }
+        """;
+
+        String otherCountryBody = """
+            {
+                "country": "Poland",
+                "size": 10,
+                "from": 0
+            }
+        """;
+
+        MvcResult cachedResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(listBody))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(parseResponse(cachedResult, FilteredPostResponse.class).getList()).hasSize(1);
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(otherCountryBody))
+                .andExpect(status().isOk());
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(listBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.length()").value(1));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        String updateBody = """
+            {
+                "title": "Updated title",
+                "content": "Updated Content",
+                "country": "Canada",
+                "categories": ["photography"],
+                "userId": %d
+            }
+        """.formatted(user.getId());
+
+        mvc.perform(put("/api/post/{id}", post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody))
+                .andExpect(status().isOk());
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(listBody))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse response = parseResponse(mvcResult, FilteredPostResponse.class);
+        assertThat(response.getList()).isEmpty();
+        assertThat(response.getTotalElements()).isEqualTo(0);
+
+        // page of country untouched by the update stays cached
+        statistics.clear();
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(otherCountryBody))
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void testGetPostPage_statementCountIndependentOfPageSize() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user);
+
+        String body = """
+            {
+                "userId": %d,
+                "from": 0,
+                "size": 20
+            }
+            """.formatted(user.getId());
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.length()").value(1));
+        long singlePostStatements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 9; i++) {
+            savePostInTestDb(user);
+        }
+
+        statistics.clear();
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.length()").value(10))
+                .andExpect(jsonPath("$.list[9].categories[0]").value("travel"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(singlePostStatements);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void testGetPostPage_summaryView() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+        post.setContent("Long content ".repeat(50));
+        postRepository.save(post);
+
+        String body = """
+            {
+                "country": "Ukraine",
+                "from": 0,
+                "size": 10,
+                "view": "summary"
+            }
+        """;
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        FilteredPostResponse response = parseResponse(mvcResult, FilteredPostResponse.class);
+        assertThat(response.getTotalElements()).isEqualTo(1);
+
+        PostDto postDto = response.getList().get(0);
+        assertThat(postDto.getContent()).isNull();
+        assertThat(postDto.getTeaser()).hasSize(Post.TEASER_LENGTH + Post.TEASER_ELLIPSIS.length());
+        assertThat(postDto.getTeaser()).startsWith("Long content Long content").endsWith(Post.TEASER_ELLIPSIS);
+        assertThat(postDto.getCategories()).containsExactly("travel", "city");
+        assertThat(postDto.getUserId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void testGetPostPage_notModified() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        String body = """
+            {
+                "userId": %d,
+                "from": 0,
+                "size": 10
+            }
+        """.formatted(user.getId());
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String eTag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .content(body))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // page is served from search cache
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        Post storedPost = postRepository.findById(post.getId()).orElseThrow();
+        storedPost.setRating(3.0);
+        postRepository.save(storedPost);
+
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list[0].rating").value(3.0));
+
+        savePostInTestDb(user);
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.length()").value(2));
+    }
+
+    @Test
+    void testGetPostPage_invalidCursor() throws Exception {
+        String body = """
+            {
+                "size": 2,
+                "cursor": "not-a-cursor"
+            }
+        """;
+
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetFacets_success() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user);
+
+        Post ratedPost = savePostInTestDb(user);
+        ratedPost.setRating(4.5);
+        ratedPost.setCategories(List.of("food"));
+        postRepository.save(ratedPost);
+
+        Post canadaPost = savePostInTestDb(user);
+        canadaPost.setCountry("Canada");
+        canadaPost.setCreatedAt(LocalDate.of(2025, 1, 15));
+        postRepository.save(canadaPost);
+
+        String body = """
+            {
+                "country": "Ukraine",
+                "category": "city"
+            }
+        """;
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_facets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        PostFacetsResponse response = parseResponse(mvcResult, PostFacetsResponse.class);
+        assertThat(response.getCountries()).containsExactlyInAnyOrderEntriesOf(Map.of("Ukraine", 1L, "Canada", 1L));
+        assertThat(response.getCategories()).containsExactlyInAnyOrderEntriesOf(
+                Map.of("travel", 1L, "city", 1L, "food", 1L));
+        assertThat(response.getRatings()).containsExactlyInAnyOrderEntriesOf(Map.of("0-1", 1L));
+        assertThat(response.getMonths()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(PostFacetsResponse.monthBucket(LocalDate.now()), 1L));
+    }
+
     @Test
     void testGenerateReport_success() throws Exception {
         User user = saveUserInTestDb();
@@ -358,6 +1023,31 @@ class PostControllerTest {
         }
     }
 
+    @Test
+    void testGenerateReport_singleStatement() throws Exception {
+        User user = saveUserInTestDb();
+        for (int i = 0; i < 5; i++) {
+            savePostInTestDb(user);
+        }
+
+        Statistics statistics = getStatistics();
+        statistics.clear();
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        byte[] bytes = mvcResult.getResponse().getContentAsByteArray();
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+            Row dataRow = workbook.getSheet("Posts").getRow(5);
+            assertThat(dataRow.getCell(4).getStringCellValue()).isEqualTo("travel, city");
+        }
+    }
+
     @Test
     void testGenerateReport_emptyResult() throws Exception {
         String body = """
@@ -385,6 +1075,103 @@ class PostControllerTest {
         }
     }
 
+    @Test
+    void testGenerateReport_csv() throws Exception {
+        User user = saveUserInTestDb();
+        Post post = savePostInTestDb(user);
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_report")
+                        .accept("text/csv")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"country\": \"Ukraine\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String csv = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=posts.csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(csv.split("\r\n")).containsExactly(
+                "id,title,content,country,categories,createdAt,rating,userId",
+                "%d,Test Title,Test Content,Ukraine,\"travel, city\",%s,0.0,%d"
+                        .formatted(post.getId(), post.getCreatedAt(), user.getId()));
+    }
+
+    @Test
+    void testGenerateReport_gzippedNdjson() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user);
+        savePostInTestDb(user);
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_report")
+                        .accept("application/x-ndjson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] bytes = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes());
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(2);
+        PostDto postDto = objectMapper.readValue(lines.get(0), PostDto.class);
+        assertThat(postDto.getTitle()).isEqualTo("Test Title");
+        assertThat(postDto.getCategories()).containsExactly("travel", "city");
+    }
+
+    @Test
+    void testGenerateReport_notAcceptable() throws Exception {
+        mvc.perform(post("/api/post/_report")
+                        .accept(MediaType.APPLICATION_PDF)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testGenerateReport_tooManyExports() throws Exception {
+        List<PostExportLimiter.Permit> permits = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                permits.add(postExportLimiter.acquire());
+            }
+
+            mvc.perform(post("/api/post/_report")
+                            .accept("text/csv")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isTooManyRequests());
+        } finally {
+            permits.forEach(PostExportLimiter.Permit::close);
+        }
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/_report")
+                        .accept("text/csv")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        // permit of finished export is released
+        for (int i = 0; i < 4; i++) {
+            permits.add(postExportLimiter.acquire());
+        }
+        permits.forEach(PostExportLimiter.Permit::close);
+    }
+
     @Test
     void testUploadFromFile_success() throws Exception {
         User user = saveUserInTestDb();
@@ -447,8 +1234,172 @@ class PostControllerTest {
         UploadedPostsRestResponse response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
         assertThat(response.getSuccessMessage()).contains("0");
         assertThat(response.getErrorMessage()).contains("1");
+        assertThat(response.getUnknownUserIds()).containsExactly(999L);
+    }
+
+
+    @Test
+    void testUploadFromFile_savedInChunksSkippingInvalidElements() throws Exception {
+        User user = saveUserInTestDb();
+
+        String post = """
+            {
+                "title": "Test Title %d",
+                "content": "Test Content",
+                "country": "Ukraine",
+                "categories": ["city"],
+                "createdAt": "2025-12-01",
+                "rating": 4.0,
+                "userId": %d
+            }
+            """;
+        String json = "[" + String.join(",", post.formatted(1, user.getId()), post.formatted(2, user.getId()),
+                "{\"rating\": \"high\"}", "42",
+                post.formatted(3, user.getId()), post.formatted(4, user.getId()), post.formatted(5, user.getId())) + "]";
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "posts.json", "application/json", json.getBytes()
+        );
+
+        MvcResult mvcResult = mvc.perform(multipart("/api/post/file/upload")
+                        .file(file))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        UploadedPostsRestResponse response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
+        assertThat(response.getSuccessMessage()).endsWith(": 5");
+        assertThat(response.getErrorMessage()).endsWith(": 2");
+        assertThat(postRepository.count()).isEqualTo(5);
+
+        mvc.perform(post("/api/post/_list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": %d, \"from\": 0, \"size\": 10}".formatted(user.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.length()").value(5))
+                .andExpect(jsonPath("$.list[0].categories[0]").value("city"))
+                .andExpect(jsonPath("$.list[0].teaser").value("Test Content"));
+    }
+
+    @Test
+    void testUploadFromFile_malformedJson() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "posts.json", "application/json", "[{\"title\": ".getBytes()
+        );
+
+        mvc.perform(multipart("/api/post/file/upload")
+                        .file(file))
+                .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testUploadFromFile_ndjsonReportsInvalidLines() throws Exception {
+        User user = saveUserInTestDb();
+
+        String post = """
+            {"title": "Test Title %d", "content": "Test Content", "country": "Ukraine", "categories": ["city"], "createdAt": "2025-12-01", "rating": 4.0, "userId": %d}\
+            """;
+        String ndjson = String.join("\n", post.formatted(1, user.getId()), "{\"title\": ", "",
+                post.formatted(2, user.getId()), "{\"rating\": \"high\"}", post.formatted(3, user.getId())) + "\n";
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "posts.ndjson", "application/x-ndjson", ndjson.getBytes()
+        );
+
+        MvcResult mvcResult = mvc.perform(multipart("/api/post/file/upload")
+                        .file(file))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        UploadedPostsRestResponse response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
+        assertThat(response.getSuccessMessage()).endsWith(": 3");
+        assertThat(response.getErrorMessage()).endsWith(": 2");
+        assertThat(response.getErrors()).extracting(UploadErrorDto::getRecordNumber).containsExactly(2L, 5L);
+        assertThat(postRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUploadFromStream_gzippedNdjson() throws Exception {
+        User user = saveUserInTestDb();
+
+        String post = """
+            {"title": "Test Title %d", "content": "Test Content", "country": "Ukraine", "categories": ["city"], "createdAt": "2025-12-01", "rating": 4.0, "userId": %d}
+            """;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            for (int i = 1; i <= 5; i++) {
+                gzip.write(post.formatted(i, user.getId()).getBytes());
+            }
+        }
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/file/upload")
+                        .contentType("application/gzip")
+                        .content(compressed.toByteArray()))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        UploadedPostsRestResponse response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
+        assertThat(response.getSuccessMessage()).endsWith(": 5");
+        assertThat(postRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void testUploadFromFile_gzippedJsonArray() throws Exception {
+        User user = saveUserInTestDb();
+
+        String json = """
+            [{"title": "Test Title", "content": "Test Content", "country": "Ukraine", "categories": ["city"], "createdAt": "2025-12-01", "rating": 4.0, "userId": %d}]
+            """.formatted(user.getId());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json.getBytes());
+        }
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "posts.json.gz", "application/gzip", compressed.toByteArray()
+        );
+
+        mvc.perform(multipart("/api/post/file/upload")
+                        .file(file))
+                .andExpect(status().isCreated());
+
+        assertThat(postRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUploadFromFile_skipsDuplicatePosts() throws Exception {
+        User user = saveUserInTestDb();
+
+        String post = """
+            {"title": "Test Title %d", "content": "Test Content", "country": "Ukraine", "categories": ["city"], "createdAt": "2025-12-01", "rating": 4.0, "userId": %d}
+            """;
+        String firstBatch = post.formatted(1, user.getId()) + post.formatted(2, user.getId()) + post.formatted(2, user.getId());
+        String secondBatch = post.formatted(2, user.getId()) + post.formatted(3, user.getId()) + post.formatted(1, user.getId());
+
+        MvcResult mvcResult = mvc.perform(post("/api/post/file/upload")
+                        .contentType("application/x-ndjson")
+                        .content(firstBatch))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        UploadedPostsRestResponse response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
+        assertThat(response.getSuccessMessage()).endsWith(": 2");
+        assertThat(response.getDuplicateCount()).isEqualTo(1);
+
+        mvcResult = mvc.perform(post("/api/post/file/upload")
+                        .contentType("application/x-ndjson")
+                        .content(secondBatch))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        response = parseResponse(mvcResult, UploadedPostsRestResponse.class);
+        assertThat(response.getSuccessMessage()).endsWith(": 1");
+        assertThat(response.getDuplicateCount()).isEqualTo(2);
+        assertThat(postRepository.count()).isEqualTo(3);
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
 
     private <T>T parseResponse(MvcResult mvcResult, Class<T> c) {
         try {
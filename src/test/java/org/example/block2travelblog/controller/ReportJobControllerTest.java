@@ -0,0 +1,269 @@
+package org.example.block2travelblog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.data.ReportJob;
+import org.example.block2travelblog.data.ReportJobStatus;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.dto.ReportJobDto;
+import org.example.block2travelblog.report.PostReportFormat;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.ReportJobRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = Block2TravelBlogApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    ReportJobRepository reportJobRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private int nextPostNumber;
+
+    @BeforeEach
+    void beforeEach() {
+        afterEach();
+    }
+
+    @AfterEach
+    void afterEach() {
+        reportJobRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void submit_generatedInBackgroundAndDownloaded() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user, "Ukraine");
+        savePostInTestDb(user, "Ukraine");
+        savePostInTestDb(user, "Poland");
+
+        ReportJobDto job = submit("csv", "{\"country\": \"Ukraine\"}");
+        assertThat(job.isReused()).isFalse();
+
+        ReportJobDto finished = waitForJob(job.getId());
+        assertThat(finished.getStatus()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(finished.getPostCount()).isEqualTo(2);
+
+        MvcResult mvcResult = mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+        byte[] file = mvcResult.getResponse().getContentAsByteArray();
+        assertThat(file).hasSize((int) finished.getSizeBytes());
+
+        List<String> lines = Arrays.asList(new String(file, StandardCharsets.UTF_8).split("\r\n"));
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).startsWith("id,title,content,country");
+        assertThat(lines.subList(1, 3)).allMatch(line -> line.contains("Ukraine"));
+    }
+
+    @Test
+    void download_range() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user, "Ukraine");
+        ReportJobDto job = waitForJob(submit("ndjson", "{}").getId());
+        long size = job.getSizeBytes();
+
+        byte[] file = mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult mvcResult = mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId())
+                        .header(HttpHeaders.RANGE, "bytes=5-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-14/" + size))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andReturn();
+        assertThat(mvcResult.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(file, 5, 15));
+
+        mvcResult = mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId())
+                        .header(HttpHeaders.RANGE, "bytes=-4"))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+        assertThat(mvcResult.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(file, (int) size - 4, (int) size));
+
+        mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId())
+                        .header(HttpHeaders.RANGE, "bytes=" + size + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + size));
+
+        mvc.perform(get("/api/post/report-jobs/{id}/file", job.getId())
+                        .header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, size));
+    }
+
+    @Test
+    void submit_reusesReportForUnchangedPosts() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user, "Ukraine");
+        ReportJobDto job = waitForJob(submit("xlsx", "{\"country\": \"Ukraine\"}").getId());
+
+        ReportJobDto reused = submit("xlsx", "{\"country\": \"Ukraine\"}");
+        assertThat(reused.isReused()).isTrue();
+        assertThat(reused.getId()).isEqualTo(job.getId());
+        assertThat(reused.getStatus()).isEqualTo(ReportJobStatus.COMPLETED);
+
+        assertThat(submit("csv", "{\"country\": \"Ukraine\"}").isReused()).isFalse();
+        assertThat(submit("xlsx", "{\"country\": \"Poland\"}").isReused()).isFalse();
+
+        savePostInTestDb(user, "Ukraine");
+        ReportJobDto regenerated = submit("xlsx", "{\"country\": \"Ukraine\"}");
+        assertThat(regenerated.isReused()).isFalse();
+        assertThat(waitForJob(regenerated.getId()).getPostCount()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_reusedAfterChangeOfPostsOutsideFilter() throws Exception {
+        User user = saveUserInTestDb();
+        savePostInTestDb(user, "Ukraine");
+        ReportJobDto job = waitForJob(submit("csv", "{\"country\": \"Ukraine\"}").getId());
+
+        savePostInTestDb(user, "Poland");
+        ReportJobDto reused = submit("csv", "{\"country\": \"Ukraine\"}");
+        assertThat(reused.isReused()).isTrue();
+        assertThat(reused.getId()).isEqualTo(job.getId());
+    }
+
+    @Test
+    void claim_queuedOrStaleRunningJobOnly() {
+        ReportJob job = new ReportJob();
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setFormat(PostReportFormat.CSV);
+        job.setFilterHash("hash");
+        job.setFilter("{}");
+        job.setCreatedAt(Instant.now());
+        Long id = reportJobRepository.save(job).getId();
+
+        Instant now = Instant.now();
+        assertThat(claim(id, now, now.minusSeconds(1800))).isEqualTo(1);
+        assertThat(claim(id, now, now.minusSeconds(1800))).isZero();
+        assertThat(claim(id, now.plusSeconds(3600), now.plusSeconds(1800))).isEqualTo(1);
+
+        job = reportJobRepository.findById(id).get();
+        assertThat(job.getStatus()).isEqualTo(ReportJobStatus.RUNNING);
+        job.setStatus(ReportJobStatus.COMPLETED);
+        reportJobRepository.save(job);
+        assertThat(claim(id, now.plusSeconds(7200), now.plusSeconds(7200))).isZero();
+    }
+
+    @Test
+    void submit_unsupportedFormat() throws Exception {
+        mvc.perform(post("/api/post/report-jobs")
+                        .param("format", "pdf")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void download_notFound() throws Exception {
+        mvc.perform(get("/api/post/report-jobs/{id}/file", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private ReportJobDto submit(String format, String filter) throws Exception {
+        MvcResult mvcResult = mvc.perform(post("/api/post/report-jobs")
+                        .param("format", format)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(filter))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return parseResponse(mvcResult, ReportJobDto.class);
+    }
+
+    private int claim(Long id, Instant now, Instant staleBefore) {
+        return transactionTemplate.execute(status -> reportJobRepository.claim(id, now, staleBefore));
+    }
+
+    private ReportJobDto waitForJob(Long id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            MvcResult mvcResult = mvc.perform(get("/api/post/report-jobs/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ReportJobDto job = parseResponse(mvcResult, ReportJobDto.class);
+            if (job.getStatus() == ReportJobStatus.COMPLETED || job.getStatus() == ReportJobStatus.FAILED) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("report job timed out").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private <T>T parseResponse(MvcResult mvcResult, Class<T> c) {
+        try {
+            return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), c);
+        } catch (JsonProcessingException | UnsupportedEncodingException e) {
+            throw new RuntimeException("Error parsing json", e);
+        }
+    }
+
+    private User saveUserInTestDb(){
+        User user = new User();
+        user.setName("Marusia");
+        user.setEmail("marusia@test.com");
+        user.setPassword("12345678");
+        return userRepository.save(user);
+    }
+
+    private Post savePostInTestDb(User user, String country){
+        Post post = new Post();
+        post.setTitle("Test Title " + nextPostNumber++);
+        post.setContent("Test Content");
+        post.setCountry(country);
+        post.setCategories(List.of("travel", "city"));
+        post.setCreatedAt(LocalDate.now());
+        post.setRating(0.0);
+        post.setUser(user);
+        return postRepository.save(post);
+    }
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.example.block2travelblog.Block2TravelBlogApplication;
 import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.dto.FilteredPostResponse;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.dto.SavePostDto;
 import org.example.block2travelblog.dto.UserDto;
 import org.example.block2travelblog.exception.DuplicateEmailException;
 import org.example.block2travelblog.repository.UserRepository;
@@ -20,8 +23,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -249,6 +258,122 @@ class UserControllerTest {
                 );
     }
 
+    @Test
+    void testFeed_fanOutOnWriteAndMergeOnRead() throws Exception {
+        User reader = saveUserInTestDb();
+        User author = saveUser("Ivanko", "ivanko@test.com");
+        User anotherReader = saveUser("Petrus", "petrus@test.com");
+
+        mvc.perform(post("/api/user/{id}/follow/{followeeId}", reader.getId(), author.getId()))
+                .andExpect(status().isNoContent());
+        PostDto fannedOutPost = savePost(author, "Fanned out");
+        waitForFeedSize(reader, 1);
+
+        // second follower reaches celebrity threshold of test profile, next posts are merged on read
+        mvc.perform(post("/api/user/{id}/follow/{followeeId}", anotherReader.getId(), author.getId()))
+                .andExpect(status().isNoContent());
+        PostDto mergedPost = savePost(author, "Merged on read");
+
+        FilteredPostResponse firstPage = getFeed(reader, null, 1);
+        assertThat(firstPage.getList()).extracting(PostDto::getId).containsExactly(mergedPost.getId());
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        FilteredPostResponse secondPage = getFeed(reader, firstPage.getNextCursor(), 1);
+        assertThat(secondPage.getList()).extracting(PostDto::getId).containsExactly(fannedOutPost.getId());
+        assertThat(secondPage.getNextCursor()).isNull();
+
+        assertThat(getFeed(anotherReader, null, 10).getList()).extracting(PostDto::getId)
+                .containsExactly(mergedPost.getId(), fannedOutPost.getId());
+
+        mvc.perform(delete("/api/user/{id}/follow/{followeeId}", reader.getId(), author.getId()))
+                .andExpect(status().isNoContent());
+        assertThat(getFeed(reader, null, 10).getList()).isEmpty();
+    }
+
+    @Test
+    void testFollow_concurrentFollowsCountedOnce() throws Exception {
+        User reader = saveUserInTestDb();
+        User author = saveUser("Ivanko", "ivanko@test.com");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mvc.perform(post("/api/user/{id}/follow/{followeeId}", reader.getId(), author.getId()))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(204);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(userRepository.findById(author.getId()).orElseThrow().getFollowerCount()).isEqualTo(1);
+
+        mvc.perform(delete("/api/user/{id}/follow/{followeeId}", reader.getId(), author.getId()))
+                .andExpect(status().isNoContent());
+        mvc.perform(delete("/api/user/{id}/follow/{followeeId}", reader.getId(), author.getId()))
+                .andExpect(status().isNoContent());
+        assertThat(userRepository.findById(author.getId()).orElseThrow().getFollowerCount()).isZero();
+    }
+
+    @Test
+    void testFollow_himself() throws Exception {
+        User user = saveUserInTestDb();
+
+        mvc.perform(post("/api/user/{id}/follow/{followeeId}", user.getId(), user.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFollow_notFound() throws Exception {
+        User user = saveUserInTestDb();
+
+        mvc.perform(post("/api/user/{id}/follow/{followeeId}", user.getId(), 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private FilteredPostResponse getFeed(User user, String cursor, int size) throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/api/user/{id}/feed", user.getId())
+                        .param("size", String.valueOf(size))
+                        .param("cursor", cursor == null ? "" : cursor))
+                .andExpect(status().isOk())
+                .andReturn();
+        return parseResponse(mvcResult, FilteredPostResponse.class);
+    }
+
+    private void waitForFeedSize(User user, int size) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (getFeed(user, null, 10).getList().size() < size) {
+            assertThat(System.currentTimeMillis()).as("feed fan-out timed out").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private PostDto savePost(User author, String title) throws Exception {
+        SavePostDto savePostDto = new SavePostDto(title, "Content of " + title, "Ukraine", List.of("travel"), author.getId());
+
+        MvcResult mvcResult = mvc.perform(post("/api/post")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(savePostDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return parseResponse(mvcResult, PostDto.class);
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("12345678");
+        return userRepository.save(user);
+    }
+
     private <T>T parseResponse(MvcResult mvcResult, Class<T> c) {
         try {
             return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), c);
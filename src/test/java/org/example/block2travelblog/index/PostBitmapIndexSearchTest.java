@@ -0,0 +1,199 @@
+package org.example.block2travelblog.index;
+
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.dto.PostFacetsResponse;
+import org.example.block2travelblog.dto.PostFilteredFieldsDto;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.example.block2travelblog.repository.specification.PostSpecifications;
+import org.example.block2travelblog.service.PostCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that index answers the same pages and facet counts as database specifications.
+ */
+@SpringBootTest(
+        classes = Block2TravelBlogApplication.class,
+        properties = "blog.search.index.enabled=true")
+@ActiveProfiles("test")
+class PostBitmapIndexSearchTest {
+
+    private static final Sort SEARCH_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int PAGE_SIZE = 3;
+    private static final String[] COUNTRIES = {"Ukraine", "Poland", "Canada"};
+    private static final String[] CATEGORIES = {"travel", "city", "food", "nature"};
+
+    @Autowired
+    PostBitmapIndex postBitmapIndex;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private final List<PostFilteredFieldsDto> filters = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        afterEach();
+        User marusia = saveUser("Marusia", "marusia@test.com");
+        User ivanko = saveUser("Ivanko", "ivanko@test.com");
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 40; i++) {
+            // several posts share a day, so ids break ties of createdAt
+            savePost(i % 3 == 0 ? ivanko : marusia, COUNTRIES[i % COUNTRIES.length],
+                    List.of(CATEGORIES[i % CATEGORIES.length], CATEGORIES[(i / 2) % CATEGORIES.length]),
+                    today.minusDays(i % 7 * 20L), i % 11 * 0.5);
+        }
+        awaitReady();
+
+        filters.add(filter(filter -> { }));
+        filters.add(filter(filter -> filter.setCountry("Poland")));
+        filters.add(filter(filter -> filter.setCategory("food")));
+        filters.add(filter(filter -> filter.setMinRating(2.5)));
+        filters.add(filter(filter -> filter.setCreatedAfter(today.minusDays(70))));
+        filters.add(filter(filter -> filter.setUserId(ivanko.getId())));
+        filters.add(filter(filter -> {
+            filter.setCountry("Ukraine");
+            filter.setCategory("travel");
+            filter.setMinRating(1.0);
+        }));
+        filters.add(filter(filter -> filter.setCountry("Atlantis")));
+    }
+
+    @AfterEach
+    void afterEach() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void search_offsetPagesMatchSpecification() {
+        for (PostFilteredFieldsDto filter : filters) {
+            for (int page = 0; page < 6; page++) {
+                PostIndexPage indexPage = postBitmapIndex.search(filter, null, (long) page * PAGE_SIZE, PAGE_SIZE, true);
+                Page<Post> specPage = postRepository.findAll(PostSpecifications.matchesFilter(filter),
+                        PageRequest.of(page, PAGE_SIZE, SEARCH_SORT));
+
+                assertThat(indexPage.ids()).isEqualTo(specPage.map(Post::getId).getContent());
+                assertThat(indexPage.totalElements()).isEqualTo(specPage.getTotalElements());
+            }
+        }
+    }
+
+    @Test
+    void search_cursorPagesMatchSpecification() {
+        for (PostFilteredFieldsDto filter : filters) {
+            PostCursor cursor = null;
+            int pages = 0;
+            do {
+                PostIndexPage indexPage = postBitmapIndex.search(filter, cursor, 0, PAGE_SIZE, false);
+                Specification<Post> specification = PostSpecifications.matchesFilter(filter);
+                if (cursor != null) {
+                    specification = specification.and(PostSpecifications.isBefore(cursor.createdAt(), cursor.id()));
+                }
+                List<Post> specPosts = postRepository.findAll(specification, PageRequest.of(0, PAGE_SIZE, SEARCH_SORT)).getContent();
+
+                assertThat(indexPage.ids()).isEqualTo(specPosts.stream().map(Post::getId).toList());
+                assertThat(indexPage.totalElements()).isNull();
+                if (specPosts.size() < PAGE_SIZE) {
+                    break;
+                }
+                Post last = specPosts.get(specPosts.size() - 1);
+                cursor = new PostCursor(last.getCreatedAt(), last.getId());
+            } while (++pages < 20);
+        }
+    }
+
+    @Test
+    void facets_countsMatchSpecification() {
+        for (PostFilteredFieldsDto filter : filters) {
+            PostFacetsResponse facets = postBitmapIndex.facets(filter);
+
+            assertThat(facets.getCountries()).isEqualTo(count(without(filter, f -> f.setCountry(null)), "country",
+                    Function.<String>identity()));
+            assertThat(facets.getCategories()).isEqualTo(count(without(filter, f -> f.setCategory(null)), "categories",
+                    Function.<String>identity()));
+            assertThat(facets.getRatings()).isEqualTo(count(without(filter, f -> f.setMinRating(null)), "rating",
+                    PostFacetsResponse::ratingBucket));
+            assertThat(facets.getMonths()).isEqualTo(count(without(filter, f -> f.setCreatedAfter(null)), "createdAt",
+                    PostFacetsResponse::monthBucket));
+        }
+    }
+
+    private <T> Map<String, Long> count(PostFilteredFieldsDto filter, String attribute, Function<T, String> bucket) {
+        Map<String, Long> counts = new TreeMap<>();
+        postRepository.<T>countGroupedBy(PostSpecifications.matchesFilter(filter), attribute)
+                .forEach((value, count) -> counts.merge(bucket.apply(value), count, Long::sum));
+        return counts;
+    }
+
+    private static PostFilteredFieldsDto without(PostFilteredFieldsDto filter, Consumer<PostFilteredFieldsDto> reset) {
+        PostFilteredFieldsDto copy = filter(f -> {
+            f.setCountry(filter.getCountry());
+            f.setCategory(filter.getCategory());
+            f.setCreatedAfter(filter.getCreatedAfter());
+            f.setMinRating(filter.getMinRating());
+            f.setUserId(filter.getUserId());
+        });
+        reset.accept(copy);
+        return copy;
+    }
+
+    private static PostFilteredFieldsDto filter(Consumer<PostFilteredFieldsDto> setup) {
+        PostFilteredFieldsDto filter = new PostFilteredFieldsDto();
+        setup.accept(filter);
+        return filter;
+    }
+
+    private void awaitReady() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!postBitmapIndex.isReady()) {
+            assertThat(System.currentTimeMillis()).as("index build timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private User saveUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("12345678");
+        return userRepository.save(user);
+    }
+
+    private void savePost(User user, String country, List<String> categories, LocalDate createdAt, double rating) {
+        Post post = new Post();
+        post.setTitle("Post in " + country);
+        post.setContent("Content");
+        post.setCountry(country);
+        post.setCategories(new ArrayList<>(categories.stream().distinct().toList()));
+        post.setCreatedAt(createdAt);
+        post.setRating(rating);
+        post.setUser(user);
+        postRepository.save(post);
+    }
+}
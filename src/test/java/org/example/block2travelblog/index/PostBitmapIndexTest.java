@@ -0,0 +1,69 @@
+package org.example.block2travelblog.index;
+
+import org.example.block2travelblog.dto.PostQueryDto;
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.example.block2travelblog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostBitmapIndexTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+
+    private PostBitmapIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        when(postRepository.findIndexRowsAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        index = new PostBitmapIndex(postRepository);
+        ReflectionTestUtils.setField(index, "buildChunkSize", 100);
+    }
+
+    @Test
+    void startBuild_readyAfterBackgroundBuild() {
+        index.startBuild();
+        awaitReady();
+
+        index.onPostChanged(created(1L));
+        assertThat(index.match(new PostQueryDto()).toArray()).containsExactly(1);
+    }
+
+    @Test
+    void onPostChanged_outOfRangeIdDisablesIndex() {
+        index.startBuild();
+        awaitReady();
+        index.onPostChanged(created(1L));
+
+        index.onPostChanged(created(1L << 32));
+
+        assertThat(index.isReady()).isFalse();
+        index.onPostChanged(created(2L));
+        assertThat(index.isReady()).isFalse();
+    }
+
+    private void awaitReady() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!index.isReady()) {
+            assertThat(System.currentTimeMillis()).as("index build timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PostChangedEvent created(Long id) {
+        PostSnapshot post = new PostSnapshot(id, "title", "content", "Ukraine", List.of("travel"), LocalDate.now(), 0.0, 1L);
+        return new PostChangedEvent(List.of(new PostChange(null, post)));
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.block2travelblog.index;
+
+import org.example.block2travelblog.event.PostChange;
+import org.example.block2travelblog.event.PostChangedEvent;
+import org.example.block2travelblog.event.PostSnapshot;
+import org.example.block2travelblog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostTextIndexTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+
+    private PostTextIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        when(postRepository.findTextRowsAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        index = new PostTextIndex(postRepository);
+        ReflectionTestUtils.setField(index, "buildChunkSize", 100);
+        ReflectionTestUtils.setField(index, "maxPendingChanges", 2);
+    }
+
+    @Test
+    void startBuild_readyAfterBackgroundBuild() {
+        index.startBuild();
+        awaitReady();
+
+        index.onPostChanged(created(1L, "Old streets of Kyiv"));
+        index.onPostChanged(created(2L, "Kyiv"));
+
+        assertThat(index.search("kyiv streets", RoaringBitmap.bitmapOf(1, 2), 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void startBuild_failedBuildDisablesIndex() throws InterruptedException {
+        CountDownLatch queried = new CountDownLatch(1);
+        when(postRepository.findTextRowsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            queried.countDown();
+            throw new IllegalStateException("database is down");
+        });
+
+        index.startBuild();
+        assertThat(queried.await(5, TimeUnit.SECONDS)).isTrue();
+        index.onPostChanged(created(1L, "Kyiv"));
+
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void onPostChanged_outOfRangeIdDisablesIndex() {
+        index.startBuild();
+        awaitReady();
+        index.onPostChanged(created(1L, "Kyiv"));
+
+        index.onPostChanged(created(1L << 32 | 1L, "Lviv"));
+
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void onPostChanged_tooManyChangesDuringBuildDisableIndex() {
+        index.onPostChanged(created(1L, "Kyiv"));
+        index.onPostChanged(created(2L, "Lviv"));
+        index.onPostChanged(created(3L, "Odesa"));
+
+        index.startBuild();
+        // build finds index disabled and does not make it ready
+        long deadline = System.currentTimeMillis() + 200;
+        while (System.currentTimeMillis() < deadline) {
+            assertThat(index.isReady()).isFalse();
+            Thread.onSpinWait();
+        }
+    }
+
+    private void awaitReady() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!index.isReady()) {
+            assertThat(System.currentTimeMillis()).as("index build timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PostChangedEvent created(Long id, String content) {
+        PostSnapshot post = new PostSnapshot(id, "title", content, "Ukraine", List.of("travel"), LocalDate.now(), 0.0, 1L);
+        return new PostChangedEvent(List.of(new PostChange(null, post)));
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.block2travelblog.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+
+    /**
+     * Correlations of sent messages, completed by tests as broker confirms.
+     */
+    private final List<CorrelationData> sent = new CopyOnWriteArrayList<>();
+
+    private NotificationPublisher publisher;
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void publish_completedByBrokerConfirm() throws Exception {
+        publisher = startPublisher(10, 5, Duration.ofSeconds(30));
+
+        CompletableFuture<Void> result = publisher.publish(message(), "message-1");
+        awaitSent(1);
+        assertThat(sent.get(0).getId()).isEqualTo("message-1");
+        assertThat(result).isNotDone();
+
+        ack(0);
+        result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void publish_failedByBrokerNack() {
+        publisher = startPublisher(10, 5, Duration.ofSeconds(30));
+
+        CompletableFuture<Void> result = publisher.publish(message(), "message-1");
+        awaitSent(1);
+        nack(0);
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("was not confirmed");
+    }
+
+    @Test
+    void publish_rejectedWhileCircuitIsOpen() {
+        publisher = startPublisher(10, 2, Duration.ofMinutes(1));
+
+        CompletableFuture<Void> first = publisher.publish(message(), "message-1");
+        CompletableFuture<Void> second = publisher.publish(message(), "message-2");
+        awaitSent(2);
+        nack(0);
+        nack(1);
+        // confirms are handled by sender thread
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        CompletableFuture<Void> rejected = publisher.publish(message(), "message-3");
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    void publish_halfOpenCircuitAdmitsSingleProbe() throws Exception {
+        publisher = startPublisher(10, 1, Duration.ofMillis(50));
+
+        publisher.publish(message(), "message-1");
+        awaitSent(1);
+        nack(0);
+        Thread.sleep(100);
+
+        CompletableFuture<Void> probe = publisher.publish(message(), "probe");
+        CompletableFuture<Void> duringProbe = publisher.publish(message(), "message-2");
+        assertThat(duringProbe).isCompletedExceptionally();
+
+        awaitSent(2);
+        assertThat(sent.get(1).getId()).isEqualTo("probe");
+        ack(1);
+        probe.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> afterProbe = publisher.publish(message(), "message-3");
+        awaitSent(3);
+        ack(2);
+        afterProbe.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void publish_failedProbeOpensCircuitAgain() throws Exception {
+        publisher = startPublisher(10, 1, Duration.ofMillis(50));
+
+        publisher.publish(message(), "message-1");
+        awaitSent(1);
+        nack(0);
+        Thread.sleep(100);
+
+        publisher.publish(message(), "probe");
+        awaitSent(2);
+        nack(1);
+
+        assertThat(publisher.publish(message(), "message-2")).isCompletedExceptionally();
+    }
+
+    @Test
+    void publish_waitsForFreeQueueSpaceAndRejectsAfterTimeout() {
+        // sender thread is not started, so queue is not drained
+        NotificationPublisher stopped = newPublisher(1, Duration.ofMillis(200), 100, Duration.ofMinutes(1));
+
+        CompletableFuture<Void> queued = stopped.publish(message(), "message-1");
+        long start = System.nanoTime();
+        CompletableFuture<Void> rejected = stopped.publish(message(), "message-2");
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(200).toNanos());
+        assertThat(queued).isNotDone();
+        assertThatThrownBy(rejected::join)
+                .hasCauseInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("queue is full");
+    }
+
+    @Test
+    void publish_blockedCallerContinuesWhenQueueIsDrained() throws Exception {
+        publisher = newPublisher(1, Duration.ofSeconds(5), 100, Duration.ofMinutes(1));
+
+        publisher.publish(message(), "message-1");
+        CompletableFuture<CompletableFuture<Void>> blocked = CompletableFuture.supplyAsync(() -> publisher.publish(message(), "message-2"));
+        Thread.sleep(100);
+        assertThat(blocked).isNotDone();
+
+        publisher.start();
+        awaitSent(2);
+        ack(0);
+        ack(1);
+        blocked.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void circuitBreaker_opensAfterConsecutiveFailures() {
+        NotificationPublisher.CircuitBreaker breaker = new NotificationPublisher.CircuitBreaker(2, Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertThat(breaker.admit()).isEqualTo(NotificationPublisher.CircuitBreaker.Admission.ALLOWED);
+
+        breaker.onFailure();
+        assertThat(breaker.isClosed()).isFalse();
+        assertThat(breaker.admit()).isEqualTo(NotificationPublisher.CircuitBreaker.Admission.REJECTED);
+    }
+
+    @Test
+    void circuitBreaker_cancelledProbeIsAdmittedAgain() {
+        NotificationPublisher.CircuitBreaker breaker = new NotificationPublisher.CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+
+        assertThat(breaker.admit()).isEqualTo(NotificationPublisher.CircuitBreaker.Admission.PROBE);
+        assertThat(breaker.admit()).isEqualTo(NotificationPublisher.CircuitBreaker.Admission.REJECTED);
+
+        breaker.onProbeCancelled();
+        assertThat(breaker.admit()).isEqualTo(NotificationPublisher.CircuitBreaker.Admission.PROBE);
+    }
+
+    private NotificationPublisher startPublisher(int queueCapacity, int failureThreshold, Duration openDuration) {
+        NotificationPublisher notificationPublisher = newPublisher(queueCapacity, Duration.ofSeconds(1), failureThreshold, openDuration);
+        notificationPublisher.start();
+        return notificationPublisher;
+    }
+
+    private NotificationPublisher newPublisher(int queueCapacity, Duration enqueueTimeout, int failureThreshold, Duration openDuration) {
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+        doAnswer(invocation -> sent.add(invocation.getArgument(4)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                        any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        return new NotificationPublisher(rabbitTemplate, new SimpleMeterRegistry(), queueCapacity, 10,
+                Duration.ofSeconds(10), enqueueTimeout, failureThreshold, openDuration);
+    }
+
+    private void awaitSent(int count) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sent.size() < count) {
+            assertThat(System.currentTimeMillis()).as("messages were not sent").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private void ack(int index) {
+        sent.get(index).getFuture().complete(new CorrelationData.Confirm(true, null));
+    }
+
+    private void nack(int index) {
+        sent.get(index).getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+    }
+
+    private static EmailMessage message() {
+        return EmailMessage.builder()
+                .subject("subject")
+                .content("content")
+                .recipientsEmails(List.of("marusia@test.com"))
+                .build();
+    }
+}
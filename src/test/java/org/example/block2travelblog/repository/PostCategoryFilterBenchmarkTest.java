@@ -0,0 +1,126 @@
+package org.example.block2travelblog.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.repository.specification.PostSpecifications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares category filtering by IN subquery over categories table without primary key and category index
+ * with EXISTS semi-join over indexed categories table.
+ * Run with -Dblog.benchmark=true, post count can be changed with -Dblog.benchmark.posts.
+ */
+@Slf4j
+@SpringBootTest(classes = Block2TravelBlogApplication.class)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "blog.benchmark", matches = "true")
+class PostCategoryFilterBenchmarkTest {
+
+    private static final int CATEGORY_COUNT = 50;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM post_categories");
+        jdbcTemplate.update("DELETE FROM posts");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void hasCategory_semiJoinComparedToMemberOf() {
+        int postCount = Integer.getInteger("blog.benchmark.posts", 1_000_000);
+        seedPosts(postCount);
+
+        // categories table as it was before redesign: no primary key and no category index
+        jdbcTemplate.execute("DROP INDEX idx_post_categories_category_post");
+        jdbcTemplate.execute("ALTER TABLE post_categories DROP CONSTRAINT pk_post_categories");
+        long memberOfCount = postRepository.count(memberOf("category-" + RUNS));
+        long memberOfMillis = bestOf(run -> postRepository.count(memberOf("category-" + run)));
+
+        jdbcTemplate.execute("ALTER TABLE post_categories ADD CONSTRAINT pk_post_categories PRIMARY KEY (post_id, category_order)");
+        jdbcTemplate.execute("CREATE INDEX idx_post_categories_category_post ON post_categories (categories, post_id)");
+        long semiJoinCount = postRepository.count(PostSpecifications.hasCategory("category-" + RUNS));
+        long semiJoinMillis = bestOf(run -> postRepository.count(PostSpecifications.hasCategory("category-" + run)));
+
+        log.info("hasCategory on {} posts: member of without index {} ms, semi-join with index {} ms",
+                postCount, memberOfMillis, semiJoinMillis);
+        assertThat(semiJoinCount).isEqualTo(memberOfCount);
+    }
+
+    private void seedPosts(int postCount) {
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user = userRepository.save(user);
+        Long userId = user.getId();
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < postCount; i++) {
+            batch.add(new Object[]{"Title " + i, "Content " + i, "Country " + i % 20,
+                    Date.valueOf(today.minusDays(i % 1000)), (double) (i % 6), userId});
+            if (batch.size() == BATCH_SIZE || i == postCount - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO posts (title, content, country, created_at, rating, user_id) VALUES (?, ?, ?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+
+        jdbcTemplate.update("""
+                INSERT INTO post_categories (post_id, category_order, categories)
+                SELECT id, 0, CONCAT('category-', MOD(id, %d)) FROM posts
+                """.formatted(CATEGORY_COUNT));
+        jdbcTemplate.update("""
+                INSERT INTO post_categories (post_id, category_order, categories)
+                SELECT id, 1, CONCAT('category-', MOD(id / %d + 1, %d)) FROM posts
+                """.formatted(CATEGORY_COUNT, CATEGORY_COUNT));
+    }
+
+    /**
+     * Category filter used before the categories table got its indexes
+     */
+    private static Specification<Post> memberOf(String category) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.isMember(category, root.get("categories"));
+    }
+
+    /**
+     * Runs query for different categories to avoid database result reuse
+     */
+    private static long bestOf(IntConsumer query) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long startTime = System.nanoTime();
+            query.accept(run);
+            best = Math.min(best, (System.nanoTime() - startTime) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.block2travelblog.service;
+
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.messaging.EmailMessage;
+import org.example.block2travelblog.messaging.NotificationPublisher;
+import org.example.block2travelblog.messaging.PostCreatedNotification;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = Block2TravelBlogApplication.class,
+        properties = "blog.notification.recipients-chunk-size=" + PostCreatedNotificationServiceTest.CHUNK_SIZE)
+@ActiveProfiles("test")
+class PostCreatedNotificationServiceTest {
+
+    static final int CHUNK_SIZE = 3;
+
+    @Autowired
+    PostCreatedNotificationService postCreatedNotificationService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @MockitoBean
+    NotificationPublisher notificationPublisher;
+
+    private int nextUserNumber;
+
+    @BeforeEach
+    void beforeEach() {
+        afterEach();
+        when(notificationPublisher.publish(any(EmailMessage.class), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void afterEach() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void noRecipients() {
+        List<Long> chunks = postCreatedNotificationService.resolveRecipientChunks();
+        assertThat(chunks).isEmpty();
+
+        postCreatedNotificationService.sendPostCreatedNotification(notification(), "event-1", chunks).join();
+        verify(notificationPublisher, never()).publish(any(EmailMessage.class), anyString());
+    }
+
+    @Test
+    void exactlyChunkSizeRecipients() {
+        List<String> emails = saveUsers(CHUNK_SIZE);
+
+        List<Long> chunks = postCreatedNotificationService.resolveRecipientChunks();
+        assertThat(chunks).hasSize(1);
+
+        List<EmailMessage> messages = send(chunks, 1);
+        assertThat(messages.get(0).getRecipientsEmails()).containsExactlyElementsOf(emails);
+    }
+
+    @Test
+    void chunkSizePlusOneRecipients() {
+        List<String> emails = saveUsers(CHUNK_SIZE + 1);
+
+        List<Long> chunks = postCreatedNotificationService.resolveRecipientChunks();
+        assertThat(chunks).hasSize(2);
+
+        List<EmailMessage> messages = send(chunks, 2);
+        assertThat(messages.get(0).getRecipientsEmails()).hasSize(CHUNK_SIZE);
+        assertThat(messages.get(1).getRecipientsEmails()).hasSize(1);
+        assertThat(allRecipients(messages)).containsExactlyElementsOf(emails);
+    }
+
+    @Test
+    void usersCreatedOrDeletedAfterResolvingDoNotShiftChunks() {
+        List<String> emails = saveUsers(CHUNK_SIZE * 2);
+        List<Long> chunks = postCreatedNotificationService.resolveRecipientChunks();
+
+        userRepository.delete(userRepository.findByEmail(emails.get(0)).orElseThrow());
+        saveUsers(1);
+
+        List<EmailMessage> messages = send(chunks, 2);
+        assertThat(messages.get(0).getRecipientsEmails()).containsExactlyElementsOf(emails.subList(1, CHUNK_SIZE));
+        assertThat(messages.get(1).getRecipientsEmails()).containsExactlyElementsOf(emails.subList(CHUNK_SIZE, CHUNK_SIZE * 2));
+    }
+
+    private List<EmailMessage> send(List<Long> chunks, int expectedMessages) {
+        postCreatedNotificationService.sendPostCreatedNotification(notification(), "event-1", chunks).join();
+
+        List<String> messageIds = new ArrayList<>();
+        ArgumentCaptor<EmailMessage> messageCaptor = ArgumentCaptor.forClass(EmailMessage.class);
+        ArgumentCaptor<String> messageIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(notificationPublisher, times(expectedMessages)).publish(messageCaptor.capture(), messageIdCaptor.capture());
+        for (int i = 0; i < expectedMessages; i++) {
+            messageIds.add("event-1-" + i);
+        }
+        assertThat(messageIdCaptor.getAllValues()).containsExactlyElementsOf(messageIds);
+        return messageCaptor.getAllValues();
+    }
+
+    private static List<String> allRecipients(List<EmailMessage> messages) {
+        return messages.stream().flatMap(message -> message.getRecipientsEmails().stream()).toList();
+    }
+
+    private List<String> saveUsers(int count) {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setName("User " + nextUserNumber);
+            user.setEmail("user" + nextUserNumber++ + "@test.com");
+            user.setPassword("12345678");
+            emails.add(userRepository.save(user).getEmail());
+        }
+        return emails;
+    }
+
+    private static PostCreatedNotification notification() {
+        PostCreatedNotification notification = new PostCreatedNotification();
+        notification.setAuthorName("Marusia");
+        notification.setTitle("Test Title");
+        return notification;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportAuthorsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void resolve_unknownIdsBeyondReportLimitAreNotQueriedAgain() {
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        ImportAuthors authors = new ImportAuthors(userRepository);
+        List<Long> ids = LongStream.rangeClosed(1, 5000).boxed().toList();
+
+        authors.resolve(ids);
+        authors.resolve(ids);
+
+        verify(userRepository, times(1)).findExistingIds(anyCollection());
+        assertThat(authors.isKnown(1L)).isTrue();
+        assertThat(authors.isKnown(5000L)).isFalse();
+        assertThat(authors.getUnknown()).hasSize(1000).startsWith(2L, 3L);
+    }
+
+    @Test
+    void resolve_evictedUnknownIdIsQueriedAgain() {
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        ImportAuthors authors = new ImportAuthors(userRepository);
+
+        authors.resolve(List.of(1L));
+        authors.resolve(LongStream.rangeClosed(2, 10_001).boxed().toList());
+        authors.resolve(List.of(2L));
+        authors.resolve(List.of(1L));
+
+        verify(userRepository, times(3)).findExistingIds(anyCollection());
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.projection.PostFingerprintRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostFingerprintFilterTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+
+    private final PostFingerprintFilter filter = new PostFingerprintFilter(postRepository, 1000, 100);
+
+    @Test
+    void startBuild_containsStoredFingerprintsWhenReady() {
+        PostFingerprintRow row = mock(PostFingerprintRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getFingerprint()).thenReturn(42L);
+        when(postRepository.findFingerprintRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(row));
+
+        assertThat(filter.mightContain(7L)).isTrue();
+        filter.startBuild();
+        awaitReady();
+
+        assertThat(filter.mightContain(42L)).isTrue();
+        assertThat(filter.mightContain(7L)).isFalse();
+    }
+
+    @Test
+    void startBuild_failedBuildKeepsEveryFingerprintPossible() throws InterruptedException {
+        CountDownLatch queried = new CountDownLatch(1);
+        when(postRepository.findFingerprintRowsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            queried.countDown();
+            throw new IllegalStateException("database is down");
+        });
+
+        filter.startBuild();
+        assertThat(queried.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightContain(7L)).isTrue();
+    }
+
+    private void awaitReady() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!filter.isReady()) {
+            assertThat(System.currentTimeMillis()).as("filter build timed out").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.block2travelblog.upload;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.dto.PostDto;
+import org.example.block2travelblog.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures rows per second of post import through {@link PostImporter}.
+ * Run with -Dblog.benchmark=true, post count can be changed with -Dblog.benchmark.posts.
+ */
+@Slf4j
+@SpringBootTest(
+        classes = Block2TravelBlogApplication.class,
+        properties = {"blog.upload.chunk-size=1000", "blog.feed.fan-out.threads=1", "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "blog.benchmark", matches = "true")
+class PostImportBenchmarkTest {
+
+    private static final int CATEGORIES_PER_POST = 2;
+
+    @Autowired
+    PostImporter postImporter;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM post_categories");
+        jdbcTemplate.update("DELETE FROM posts");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importPosts_rowsPerSecond() {
+        int postCount = Integer.getInteger("blog.benchmark.posts", 100_000);
+        User user = new User();
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        Long userId = userRepository.save(user).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long startTime = System.nanoTime();
+        postImporter.importPosts(generatedPosts(postCount, userId));
+        long millis = Math.max((System.nanoTime() - startTime) / 1_000_000, 1);
+
+        long rows = (long) postCount * (1 + CATEGORIES_PER_POST);
+        log.info("Imported {} posts ({} rows) in {} ms: {} rows/s, {} prepared statements",
+                postCount, rows, millis, rows * 1000 / millis, statistics.getPrepareStatementCount());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts", Long.class)).isEqualTo(postCount);
+    }
+
+    private static PostRecordReader generatedPosts(int postCount, Long userId) {
+        LocalDate today = LocalDate.now();
+        return new PostRecordReader() {
+            private int number;
+
+            @Override
+            public PostRecord next() {
+                if (number == postCount) {
+                    return null;
+                }
+                number++;
+                PostDto postDto = new PostDto(null, "Title " + number, "Content of post " + number, null,
+                        "Country " + number % 20, List.of("category-" + number % 50, "category-" + number % 7),
+                        today.minusDays(number % 1000), (double) (number % 6), userId, null);
+                return PostRecord.valid(postDto, number);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.block2travelblog.upload;
+
+import org.example.block2travelblog.Block2TravelBlogApplication;
+import org.example.block2travelblog.data.Post;
+import org.example.block2travelblog.data.User;
+import org.example.block2travelblog.exception.ImportConflictException;
+import org.example.block2travelblog.repository.PostRepository;
+import org.example.block2travelblog.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        classes = Block2TravelBlogApplication.class)
+@ActiveProfiles("test")
+class PostImporterTest {
+
+    @Autowired
+    PostImporter postImporter;
+
+    @Autowired
+    PostRepository postRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        afterEach();
+    }
+
+    @AfterEach
+    void afterEach() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void isFingerprintConflict_uniqueFingerprintOnly() {
+        User user = saveUserInTestDb();
+        postRepository.saveAndFlush(newFingerprintedPost(user));
+
+        DataIntegrityViolationException duplicate = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> postRepository.saveAndFlush(newFingerprintedPost(user)));
+        assertThat(PostImporter.isFingerprintConflict(duplicate)).isTrue();
+
+        User missingUser = new User();
+        missingUser.setId(Long.MAX_VALUE);
+        Post post = newFingerprintedPost(missingUser);
+        post.setFingerprint(null);
+        DataIntegrityViolationException missingAuthor = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> postRepository.saveAndFlush(post));
+        assertThat(PostImporter.isFingerprintConflict(missingAuthor)).isFalse();
+    }
+
+    @Test
+    void retryingDuplicates_otherViolationIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> postImporter.retryingDuplicates(useFingerprintFilter -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("NULL not allowed for column \"TITLE\"");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retryingDuplicates_fingerprintConflictIsRetriedOnceWithoutFilter() {
+        List<Boolean> attempts = new ArrayList<>();
+
+        String result = postImporter.retryingDuplicates(useFingerprintFilter -> {
+            attempts.add(useFingerprintFilter);
+            if (useFingerprintFilter) {
+                throw new DataIntegrityViolationException("Unique index violated: UK_POST_FINGERPRINT");
+            }
+            return "saved";
+        });
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).containsExactly(true, false);
+
+        assertThatThrownBy(() -> postImporter.retryingDuplicates(useFingerprintFilter -> {
+            throw new DataIntegrityViolationException("duplicate key value violates unique constraint \"uk_post_fingerprint\"");
+        })).isInstanceOf(ImportConflictException.class);
+    }
+
+    private User saveUserInTestDb() {
+        User user = new User();
+        user.setName("Marusia");
+        user.setEmail("marusia@test.com");
+        user.setPassword("12345678");
+        return userRepository.save(user);
+    }
+
+    private static Post newFingerprintedPost(User user) {
+        Post post = new Post();
+        post.setTitle("Test Title");
+        post.setContent("Test Content");
+        post.setCountry("Ukraine");
+        post.setCategories(List.of("travel"));
+        post.setCreatedAt(LocalDate.of(2024, 5, 1));
+        post.setRating(0.0);
+        post.setUser(user);
+        post.setFingerprint(PostFingerprint.of(post.getTitle(), post.getContent(), post.getCountry(), user.getId(), post.getCreatedAt()));
+        return post;
+    }
+}
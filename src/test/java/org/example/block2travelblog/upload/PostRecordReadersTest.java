@@ -0,0 +1,99 @@
+package org.example.block2travelblog.upload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostRecordReadersTest {
+
+    private static final PostRecordReaders.Limits LIMITS = new PostRecordReaders.Limits(1024 * 1024, 200);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void ndjson_byteOrderMarkIsStripped() throws IOException {
+        List<PostRecord> records = readAll("\uFEFF{\"title\": \"First\"}\n{\"title\": \"Second\"}\n", LIMITS);
+
+        assertThat(records).allMatch(PostRecord::isValid);
+        assertThat(records).extracting(record -> record.post().getTitle()).containsExactly("First", "Second");
+    }
+
+    @Test
+    void ndjson_crlfLineBreaksAndBlankLines() throws IOException {
+        List<PostRecord> records = readAll("{\"title\": \"First\"}\r\n\r\n{\"title\": \"Second\"}", LIMITS);
+
+        assertThat(records).extracting(PostRecord::number).containsExactly(1L, 3L);
+        assertThat(records).extracting(record -> record.post().getTitle()).containsExactly("First", "Second");
+    }
+
+    @Test
+    void ndjson_lineLongerThanLimitFails() {
+        String longLine = "{\"title\": \"" + "a".repeat(300) + "\"}";
+
+        assertThatThrownBy(() -> readAll("{\"title\": \"First\"}\n" + longLine + "\n", LIMITS))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Line 2 is longer than 200 characters");
+    }
+
+    @Test
+    void ndjson_lineOfLimitLengthIsRead() throws IOException {
+        String prefix = "{\"title\": \"";
+        String line = prefix + "a".repeat(200 - prefix.length() - 2) + "\"}";
+        assertThat(line).hasSize(200);
+
+        assertThat(readAll(line + "\r\n", LIMITS)).singleElement().matches(PostRecord::isValid);
+    }
+
+    @Test
+    void gzipContentLargerThanLimitFails() throws IOException {
+        // 10 KB of blank lines compress to a few dozen bytes
+        byte[] gzip = gzip("{\"title\": \"First\"}\n" + "\n".repeat(10 * 1024));
+
+        assertThatThrownBy(() -> readAll(gzip, new PostRecordReaders.Limits(4096, 200)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Uploaded content is larger than 4096 bytes after decompression");
+    }
+
+    @Test
+    void jsonArrayLargerThanLimitFails() {
+        String json = "[" + "{\"title\": \"First\"}, ".repeat(200) + "{\"title\": \"Last\"}]";
+
+        assertThatThrownBy(() -> readAll(json.getBytes(StandardCharsets.UTF_8), new PostRecordReaders.Limits(1024, 200)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("larger than 1024 bytes");
+    }
+
+    private List<PostRecord> readAll(String ndjson, PostRecordReaders.Limits limits) throws IOException {
+        return readAll(ndjson.getBytes(StandardCharsets.UTF_8), limits);
+    }
+
+    private List<PostRecord> readAll(byte[] content, PostRecordReaders.Limits limits) throws IOException {
+        List<PostRecord> records = new ArrayList<>();
+        try (PostRecordReader reader = PostRecordReaders.open(objectMapper, new ByteArrayInputStream(content),
+                "posts.ndjson", null, limits)) {
+            PostRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream)) {
+            gzipStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.block2travelblog.upload.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CopyCsvWriterTest {
+
+    @Test
+    void writeRow_nullIsUnquotedEmptyValue() throws IOException {
+        assertThat(row(1L, null, "a", null)).isEqualTo("\"1\",,\"a\",\n");
+    }
+
+    @Test
+    void writeRow_emptyStringIsQuoted() throws IOException {
+        assertThat(row("", null)).isEqualTo("\"\",\n");
+    }
+
+    @Test
+    void writeRow_quotesAreDoubled() throws IOException {
+        assertThat(row("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"\n");
+    }
+
+    @Test
+    void writeRow_separatorsAndLineBreaksStayInsideQuotes() throws IOException {
+        assertThat(row("a,b", "line\nbreak", "cr\r\nlf")).isEqualTo("\"a,b\",\"line\nbreak\",\"cr\r\nlf\"\n");
+    }
+
+    @Test
+    void writeRow_backslashIsNotEscaped() throws IOException {
+        assertThat(row("C:\\path\\N", "\\.")).isEqualTo("\"C:\\path\\N\",\"\\.\"\n");
+    }
+
+    @Test
+    void writeRow_nonAsciiIsWrittenAsUtf8() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            CopyCsvWriter.writeRow(writer, "Київ", "😀");
+        }
+
+        assertThat(outputStream.toByteArray()).isEqualTo("\"Київ\",\"😀\"\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeRow_valuesAreWrittenWithToString() throws IOException {
+        assertThat(row(7L, 0, 4.5, LocalDate.of(2024, 5, 1))).isEqualTo("\"7\",\"0\",\"4.5\",\"2024-05-01\"\n");
+    }
+
+    private static String row(Object... values) throws IOException {
+        StringWriter writer = new StringWriter();
+        CopyCsvWriter.writeRow(writer, values);
+        return writer.toString();
+    }
+}